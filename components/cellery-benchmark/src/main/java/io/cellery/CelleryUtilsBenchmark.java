@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.cellery;
+
+import io.cellery.impl.SyntheticImages;
+import io.cellery.models.Cell;
+import io.cellery.models.Composite;
+import io.cellery.models.internal.Image;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the YAML serialization, YAML parsing and zip extraction utilities used by the native functions. YAML
+ * parsing is measured both for documents which are cached and for documents which have not been read before.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CelleryUtilsBenchmark {
+    // Size of the source file of each component in the synthetic image zips
+    private static final int PAYLOAD_SIZE = 16 * 1024;
+
+    @Param({"1", "10", "100", "1000"})
+    private int components;
+
+    private Path directory;
+    private String cellYamlPath;
+    private String compositeYamlPath;
+    private Cell cell;
+    private String zipPath;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("cellery-benchmark");
+        Image cellImage = SyntheticImages.createImage("cell" + components, components, false);
+        cellYamlPath = SyntheticImages.writeCellYaml(cellImage).toString();
+        compositeYamlPath = SyntheticImages.writeCompositeYaml(
+                SyntheticImages.createImage("composite" + components, components, true)).toString();
+        cell = CelleryUtils.readCellYaml(cellYamlPath);
+        zipPath = SyntheticImages.createImageZip(directory, cellImage, PAYLOAD_SIZE).toString();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        SyntheticImages.delete(directory);
+    }
+
+    /**
+     * Destination of a single zip extraction, which is removed after each invocation.
+     */
+    @State(Scope.Thread)
+    public static class ExtractionDirectory {
+        private Path path;
+
+        @Setup(Level.Invocation)
+        public void create() throws IOException {
+            path = Files.createTempDirectory("cellery-benchmark-extract");
+        }
+
+        @TearDown(Level.Invocation)
+        public void delete() throws IOException {
+            SyntheticImages.delete(path);
+        }
+    }
+
+    /**
+     * Copy of the cell YAML with distinct contents for each invocation, so that the parsed document is not cached.
+     */
+    @State(Scope.Thread)
+    public static class ColdCellYaml {
+        private int invocation;
+        private Path path;
+
+        @Setup(Level.Invocation)
+        public void create(CelleryUtilsBenchmark benchmark) throws IOException {
+            path = Files.createTempFile(benchmark.directory, "cold-cell", ".yaml");
+            String content = new String(Files.readAllBytes(Paths.get(benchmark.cellYamlPath)),
+                    StandardCharsets.UTF_8);
+            Files.write(path, (content + "\n# " + invocation++ + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+
+        @TearDown(Level.Invocation)
+        public void delete() throws IOException {
+            Files.delete(path);
+        }
+    }
+
+    @Benchmark
+    public String toYaml() {
+        return CelleryUtils.toYaml(cell);
+    }
+
+    @Benchmark
+    public void writeYaml() throws IOException {
+        CelleryUtils.writeYaml(cell, directory.resolve("cell.yaml").toString());
+    }
+
+    @Benchmark
+    public Cell readCellYaml() {
+        return CelleryUtils.readCellYaml(cellYamlPath);
+    }
+
+    @Benchmark
+    public Cell readColdCellYaml(ColdCellYaml coldCellYaml) {
+        return CelleryUtils.readCellYaml(coldCellYaml.path.toString());
+    }
+
+    @Benchmark
+    public Composite readCompositeYaml() {
+        return CelleryUtils.readCompositeYaml(compositeYamlPath);
+    }
+
+    @Benchmark
+    public void unzip(ExtractionDirectory extractionDirectory) {
+        CelleryUtils.unzip(zipPath, extractionDirectory.path.toString());
+    }
+}
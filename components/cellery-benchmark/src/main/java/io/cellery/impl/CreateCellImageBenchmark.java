@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.cellery.impl;
+
+import io.cellery.models.internal.Image;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the generation of the cell and composite YAMLs while building a cell image.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CreateCellImageBenchmark {
+    @Param({"1", "10", "100", "1000"})
+    private int components;
+
+    private CreateCellImage createCellImage;
+    private Image cellImage;
+    private Image compositeImage;
+
+    @Setup
+    public void setup() {
+        createCellImage = new CreateCellImage();
+        cellImage = SyntheticImages.createImage("cell" + components, components, false);
+        compositeImage = SyntheticImages.createImage("composite" + components, components, true);
+    }
+
+    @Benchmark
+    public void generateCell() {
+        createCellImage.generateCell(cellImage);
+    }
+
+    @Benchmark
+    public void generateComposite() {
+        createCellImage.generateComposite(compositeImage);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.cellery.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the lookup of cell references in cell image zips, both when the reference is cached and when the zip
+ * has changed since it was last read, with and without the binary image index in the zip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ReadReferenceBenchmark {
+    @Param({"1", "10", "100", "1000"})
+    private int components;
+
+    @Param({"false", "true"})
+    private boolean indexed;
+
+    private Path directory;
+    private File zip;
+    private String zipPath;
+    private long lastModified;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("cellery-benchmark");
+        zip = SyntheticImages.createImageZip(directory, SyntheticImages.createImage("reference" + components,
+                components, false), 1024, indexed).toFile();
+        zipPath = zip.getAbsolutePath();
+        lastModified = zip.lastModified();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        SyntheticImages.delete(directory);
+    }
+
+    /**
+     * Touches the zip before each invocation of the cold benchmark so that the cached reference is stale.
+     */
+    @State(Scope.Thread)
+    public static class ModifiedZip {
+        @Setup(Level.Invocation)
+        public void touch(ReadReferenceBenchmark benchmark) {
+            benchmark.lastModified += 1000;
+            if (!benchmark.zip.setLastModified(benchmark.lastModified)) {
+                throw new IllegalStateException("Unable to modify " + benchmark.zipPath);
+            }
+        }
+    }
+
+    @Benchmark
+    public Map<String, String> readCachedReference() throws IOException {
+        return ReadReference.readReference(zipPath);
+    }
+
+    @Benchmark
+    public Map<String, String> readModifiedReference(ModifiedZip modifiedZip) throws IOException {
+        return ReadReference.readReference(zipPath);
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.cellery.impl;
+
+import com.google.gson.JsonObject;
+import io.cellery.models.API;
+import io.cellery.models.APIDefinition;
+import io.cellery.models.Meta;
+import io.cellery.models.Port;
+import io.cellery.models.internal.Image;
+import io.cellery.models.internal.ImageComponent;
+import io.cellery.util.Codec;
+import io.cellery.util.ImageIndex;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static io.cellery.CelleryConstants.CELLERY;
+import static io.cellery.CelleryConstants.IMAGE_INDEX_FILE_NAME;
+import static io.cellery.CelleryConstants.METADATA_FILE_NAME;
+import static io.cellery.CelleryConstants.REFERENCE_FILE_NAME;
+import static io.cellery.CelleryConstants.TARGET;
+import static io.cellery.CelleryConstants.YAML;
+
+/**
+ * Builds synthetic cell images used as the input of the benchmarks.
+ */
+public class SyntheticImages {
+    public static final String ORG = "benchmark";
+    public static final String VERSION = "1.0.0";
+    // Number of dependencies of each cell in a synthetic dependency tree
+    private static final int DEPENDENCY_FAN_OUT = 10;
+
+    private SyntheticImages() {
+    }
+
+    /**
+     * Create a cell image with the given number of components.
+     *
+     * @param name       cell name
+     * @param components number of components
+     * @param composite  whether the image is a composite image
+     * @return cell image
+     */
+    public static Image createImage(String name, int components, boolean composite) {
+        Image image = new Image();
+        image.setOrgName(ORG);
+        image.setCellName(name);
+        image.setCellVersion(VERSION);
+        image.setCompositeImage(composite);
+        for (int i = 0; i < components; i++) {
+            ImageComponent component = new ImageComponent();
+            component.setName("component" + i);
+            component.setSource("wso2cellery/sampleapp-component" + i + ":" + VERSION);
+            component.setType("Deployment");
+            component.setContainerPort(8080);
+            component.addEnv("COMPONENT_INDEX", Integer.toString(i));
+            component.addEnv("LOG_LEVEL", "INFO");
+            component.addLabel("team", "benchmark");
+            Port port = new Port();
+            port.setName("http");
+            port.setPort(80);
+            port.setProtocol("HTTP");
+            port.setTargetContainer(component.getName());
+            port.setTargetPort(8080);
+            component.addPort(port);
+            API api = new API();
+            api.setName(component.getName());
+            api.setPort(80);
+            api.setContext("component" + i);
+            api.setDefinitions(Collections.singletonList(new APIDefinition("/resource", "GET")));
+            component.addApi(api);
+            image.addComponent(component);
+        }
+        return image;
+    }
+
+    /**
+     * Generate the cell YAML of a cell image.
+     *
+     * @param image cell image
+     * @return path to the generated YAML
+     */
+    public static Path writeCellYaml(Image image) {
+        new CreateCellImage().generateCell(image);
+        return getYamlPath(image);
+    }
+
+    /**
+     * Generate the composite YAML of a cell image.
+     *
+     * @param image cell image
+     * @return path to the generated YAML
+     */
+    public static Path writeCompositeYaml(Image image) {
+        new CreateCellImage().generateComposite(image);
+        return getYamlPath(image);
+    }
+
+    private static Path getYamlPath(Image image) {
+        return Paths.get(System.getProperty("user.dir"), TARGET, CELLERY, image.getCellName() + YAML);
+    }
+
+    /**
+     * Create a cell image zip laid out as the zips built by CreateCellImage.
+     *
+     * @param directory   directory in which the zip is created
+     * @param image       cell image
+     * @param payloadSize size in bytes of the source file added for each component
+     * @return path to the zip
+     * @throws IOException if writing the zip fails
+     */
+    public static Path createImageZip(Path directory, Image image, int payloadSize) throws IOException {
+        return createImageZip(directory, image, payloadSize, false);
+    }
+
+    /**
+     * Create a cell image zip laid out as the zips built by CreateCellImage.
+     *
+     * @param directory   directory in which the zip is created
+     * @param image       cell image
+     * @param payloadSize size in bytes of the source file added for each component
+     * @param indexed     whether the binary image index is added to the zip
+     * @return path to the zip
+     * @throws IOException if writing the zip fails
+     */
+    public static Path createImageZip(Path directory, Image image, int payloadSize, boolean indexed)
+            throws IOException {
+        Path cellYaml = image.isCompositeImage() ? writeCompositeYaml(image) : writeCellYaml(image);
+        Map<String, String> reference = new LinkedHashMap<>();
+        image.getComponentNameToComponentMap().keySet().forEach(name -> {
+            reference.put(name + "_host", "{{instance_name}}--" + name + "-service");
+            reference.put(name + "_api_url", "http://{{instance_name}}--gateway-service:80/" + name);
+        });
+        byte[] metadata = createMetadata(image.getCellName(), 0).toString().getBytes(StandardCharsets.UTF_8);
+        byte[] referenceJson = Codec.toJson(reference).getBytes(StandardCharsets.UTF_8);
+        Random random = new Random(payloadSize);
+        byte[] payload = new byte[payloadSize];
+        Path zip = directory.resolve(image.getCellName() + ".zip");
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(Files.newOutputStream(zip))) {
+            addEntry(zipOutputStream, METADATA_FILE_NAME, metadata);
+            addEntry(zipOutputStream, "artifacts/ref/" + REFERENCE_FILE_NAME, referenceJson);
+            if (indexed) {
+                Path index = directory.resolve(image.getCellName() + "-" + IMAGE_INDEX_FILE_NAME);
+                ImageIndex.write(index, Codec.readJson(new String(metadata, StandardCharsets.UTF_8), Meta.class),
+                        metadata, reference, referenceJson);
+                addEntry(zipOutputStream, "artifacts/cellery/" + IMAGE_INDEX_FILE_NAME, Files.readAllBytes(index));
+                Files.delete(index);
+            }
+            addEntry(zipOutputStream, "artifacts/cellery/" + image.getCellName() + YAML,
+                    Files.readAllBytes(cellYaml));
+            for (String name : image.getComponentNameToComponentMap().keySet()) {
+                random.nextBytes(payload);
+                addEntry(zipOutputStream, "src/" + image.getCellName() + "/" + name + ".bal", payload);
+            }
+        }
+        return zip;
+    }
+
+    private static void addEntry(ZipOutputStream zipOutputStream, String name, byte[] content) throws IOException {
+        zipOutputStream.putNextEntry(new ZipEntry(name));
+        zipOutputStream.write(content);
+        zipOutputStream.closeEntry();
+    }
+
+    /**
+     * Write the metadata.json of a cell with a dependency tree of the given size.
+     *
+     * @param directory    directory in which the metadata is written
+     * @param dependencies number of cells in the dependency tree, excluding the root
+     * @return path to the metadata.json
+     * @throws IOException if writing the metadata fails
+     */
+    public static Path writeMetadata(Path directory, int dependencies) throws IOException {
+        return writeMetadata(directory, dependencies, false);
+    }
+
+    /**
+     * Write the metadata.json of a cell with a dependency tree of the given size.
+     *
+     * @param directory    directory in which the metadata is written
+     * @param dependencies number of cells in the dependency tree, excluding the root
+     * @param indexed      whether the binary image index is written alongside the metadata
+     * @return path to the metadata.json
+     * @throws IOException if writing the metadata fails
+     */
+    public static Path writeMetadata(Path directory, int dependencies, boolean indexed) throws IOException {
+        Path metadata = directory.resolve(METADATA_FILE_NAME);
+        Files.write(metadata, createMetadata("root", dependencies).toString().getBytes(StandardCharsets.UTF_8));
+        if (indexed) {
+            ImageIndex.write(directory.resolve(IMAGE_INDEX_FILE_NAME), Codec.readJson(metadata, Meta.class),
+                    Files.readAllBytes(metadata), Collections.emptyMap(), null);
+        }
+        return metadata;
+    }
+
+    /**
+     * Create the metadata of a cell. The dependencies are distributed breadth first with a fixed fan out, so that
+     * the tree is both wide and deep for larger sizes.
+     */
+    private static JsonObject createMetadata(String name, int dependencies) {
+        JsonObject root = createMeta(name);
+        JsonObject[] nodes = new JsonObject[dependencies + 1];
+        nodes[0] = root;
+        for (int i = 1; i <= dependencies; i++) {
+            nodes[i] = createMeta("dependency" + i);
+            JsonObject parent = nodes[(i - 1) / DEPENDENCY_FAN_OUT];
+            parent.getAsJsonObject("components").getAsJsonObject("component")
+                    .getAsJsonObject("dependencies").getAsJsonObject("cells")
+                    .add("alias" + i, nodes[i]);
+        }
+        return root;
+    }
+
+    private static JsonObject createMeta(String name) {
+        JsonObject dependencies = new JsonObject();
+        dependencies.add("cells", new JsonObject());
+        dependencies.add("composites", new JsonObject());
+        JsonObject component = new JsonObject();
+        component.add("dependencies", dependencies);
+        JsonObject components = new JsonObject();
+        components.add("component", component);
+        JsonObject meta = new JsonObject();
+        meta.addProperty("org", ORG);
+        meta.addProperty("name", name);
+        meta.addProperty("ver", VERSION);
+        meta.addProperty("kind", "Cell");
+        meta.add("components", components);
+        return meta;
+    }
+
+    /**
+     * Delete a directory created for the benchmark inputs.
+     *
+     * @param directory directory to delete
+     * @throws IOException if deleting the directory fails
+     */
+    public static void delete(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+}
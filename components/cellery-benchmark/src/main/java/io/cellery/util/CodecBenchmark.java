@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.cellery.util;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.gson.Gson;
+import io.cellery.impl.SyntheticImages;
+import io.cellery.models.Meta;
+import io.cellery.models.internal.Dependency;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the shared codec with the mappers the native functions used to create for each call, for reading
+ * metadata.json and for rewriting the dependencies annotation. Run with "-prof gc" to compare the allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CodecBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int dependencies;
+
+    private Path directory;
+    private Path metadataPath;
+    private String dependenciesJson;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("cellery-benchmark");
+        metadataPath = SyntheticImages.writeMetadata(directory, dependencies);
+        Dependency[] dependencyList = new Dependency[dependencies];
+        for (int i = 0; i < dependencies; i++) {
+            dependencyList[i] = new Dependency(SyntheticImages.ORG, "dependency" + i, SyntheticImages.VERSION,
+                    "alias" + i, "Cell");
+        }
+        dependenciesJson = Codec.toJson(dependencyList);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        SyntheticImages.delete(directory);
+    }
+
+    @Benchmark
+    public Meta readMetadataWithNewMapper() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        return objectMapper.readValue(Files.readAllBytes(metadataPath), Meta.class);
+    }
+
+    @Benchmark
+    public Meta readMetadataWithCodec() throws IOException {
+        return Codec.readJson(metadataPath, Meta.class);
+    }
+
+    @Benchmark
+    public String rewriteDependenciesWithNewGson() {
+        Gson gson = new Gson();
+        Dependency[] dependencyList = gson.fromJson(dependenciesJson, Dependency[].class);
+        return gson.toJson(dependencyList);
+    }
+
+    @Benchmark
+    public String rewriteDependenciesWithCodec() {
+        Dependency[] dependencyList = Codec.fromJson(dependenciesJson, Dependency[].class);
+        return Codec.toJson(dependencyList);
+    }
+}
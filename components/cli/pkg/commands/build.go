@@ -31,6 +31,7 @@ import (
 	"path"
 	"path/filepath"
 	"regexp"
+	"strconv"
 	"strings"
 	"time"
 
@@ -71,7 +72,11 @@ func RunBuild(tag string, fileName string) {
 		spinner.Stop(false)
 		util.ExitWithErrorMessage("Error in getting current directory location", err)
 	}
-	_ = os.RemoveAll(targetDir)
+	// Incremental builds reuse the artifacts of the previous build which are tracked by the build index
+	incrementalBuild := strings.EqualFold(os.Getenv(constants.CELLERY_INCREMENTAL_BUILD_ENV_VAR), "true")
+	if !incrementalBuild {
+		_ = os.RemoveAll(targetDir)
+	}
 
 	var imageName = &image.CellImageName{
 		Organization: parsedCellImage.Organization,
@@ -197,6 +202,7 @@ func RunBuild(tag string, fileName string) {
 		re := regexp.MustCompile("^" + currentDir + "/")
 		balFilePath := re.ReplaceAllString(tempBuildFileName, "")
 		cmd = exec.Command("docker", "exec", "-w", "/home/cellery/src", "-u", cliUser.Uid,
+			"-e", constants.CELLERY_INCREMENTAL_BUILD_ENV_VAR+"="+strconv.FormatBool(incrementalBuild),
 			strings.TrimSpace(string(containerId)), constants.DOCKER_CLI_BALLERINA_EXECUTABLE_PATH, "run", balFilePath, "build", string(iName), "{}")
 	}
 	execError := ""
@@ -238,6 +244,9 @@ func RunBuild(tag string, fileName string) {
 		spinner.Stop(false)
 		util.ExitWithErrorMessage("Error occurred creating image", err)
 	}
+	// The build index and the API definition cache are only used by the next build and are not a part of the image
+	_ = os.Remove(filepath.Join(projectDir, constants.ZIP_ARTIFACTS, constants.BUILD_INDEX_FILE_NAME))
+	_ = os.RemoveAll(filepath.Join(projectDir, constants.ZIP_ARTIFACTS, constants.API_DEFINITION_CACHE_DIR))
 	err = util.CleanOrCreateDir(filepath.Join(projectDir, constants.ZIP_BALLERINA_SOURCE))
 	if err != nil {
 		spinner.Stop(false)
@@ -425,6 +434,32 @@ func generateMetaData(cellImage *image.CellImage, targetDir string, spinner *uti
 	if err != nil {
 		util.ExitWithErrorMessage(errorMessage, err)
 	}
+	writeImageIndex(metadata, metadataFileContent, targetDir)
+}
+
+// writeImageIndex writes the binary index of the metadata and the reference which is read by the runtime instead of
+// the JSON files. The index is optional, as the runtime falls back to the JSON files if it is missing.
+func writeImageIndex(metadata *image.MetaData, metadataJSON []byte, targetDir string) {
+	referenceFile := filepath.Join(targetDir, "ref", "reference.json")
+	reference, err := image.ReadReference(referenceFile)
+	if err != nil {
+		util.PrintWarningMessage(fmt.Sprintf("Skipped writing the image index. Failed to read %s: %v",
+			referenceFile, err))
+		return
+	}
+	referenceJSON, err := image.ReadImageIndexSource(referenceFile)
+	if err != nil {
+		util.PrintWarningMessage(fmt.Sprintf("Skipped writing the image index. Failed to read %s: %v",
+			referenceFile, err))
+		return
+	}
+	indexFile := filepath.Join(targetDir, "cellery", constants.IMAGE_INDEX_FILE_NAME)
+	err = image.WriteImageIndex(indexFile, metadata, metadataJSON, reference, referenceJSON)
+	if err != nil {
+		_ = os.Remove(indexFile)
+		util.PrintWarningMessage(fmt.Sprintf("Skipped writing the image index. Failed to write %s: %v",
+			indexFile, err))
+	}
 }
 
 func extractDependenciesFromMetaData(dependencyMetadata *image.MetaData, cellImage *image.CellImage, spinner *util.Spinner, errorMessage string) *image.MetaData {
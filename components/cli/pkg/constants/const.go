@@ -78,6 +78,11 @@ const ZIP_BALLERINA_SOURCE = "src"
 const ZIP_ARTIFACTS = "artifacts"
 const ZIP_TESTS = "tests"
 
+const CELLERY_INCREMENTAL_BUILD_ENV_VAR = "CELLERY_INCREMENTAL_BUILD"
+const BUILD_INDEX_FILE_NAME = ".build-index.json"
+const API_DEFINITION_CACHE_DIR = ".api-definitions"
+const IMAGE_INDEX_FILE_NAME = "image-index.bin"
+
 const CELLERY_HOME_DOCS_VIEW_DIR = "docs-view"
 
 const CELLERY_HOME = ".cellery"
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2019 WSO2 Inc. (http:www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http:www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package image
+
+import (
+	"bytes"
+	"crypto/sha256"
+	"encoding/binary"
+	"encoding/hex"
+	"encoding/json"
+	"fmt"
+	"hash/crc32"
+	"io/ioutil"
+	"os"
+	"sort"
+)
+
+// The layout of the index is documented in io.cellery.util.ImageIndex which reads it at runtime
+const imageIndexMagic = "CIDX"
+const imageIndexVersion = 3
+
+// ReferenceEntry is an entry of the reference of a cell image
+type ReferenceEntry struct {
+	Key   string
+	Value string
+}
+
+// ReadReference reads the entries of a reference.json in the order they appear in the file. Values which are not
+// strings are kept as their JSON text. A missing reference.json results in no entries.
+func ReadReference(referenceFile string) ([]ReferenceEntry, error) {
+	content, err := ioutil.ReadFile(referenceFile)
+	if os.IsNotExist(err) {
+		return nil, nil
+	}
+	if err != nil {
+		return nil, err
+	}
+	decoder := json.NewDecoder(bytes.NewReader(content))
+	token, err := decoder.Token()
+	if err != nil {
+		return nil, err
+	}
+	if token != json.Delim('{') {
+		return nil, fmt.Errorf("reference %s is not a JSON object", referenceFile)
+	}
+	var reference []ReferenceEntry
+	for decoder.More() {
+		token, err = decoder.Token()
+		if err != nil {
+			return nil, err
+		}
+		key, _ := token.(string)
+		var value json.RawMessage
+		if err = decoder.Decode(&value); err != nil {
+			return nil, err
+		}
+		entry := ReferenceEntry{Key: key}
+		if len(value) > 0 && value[0] == '"' {
+			if err = json.Unmarshal(value, &entry.Value); err != nil {
+				return nil, err
+			}
+		} else {
+			var compacted bytes.Buffer
+			if err = json.Compact(&compacted, value); err != nil {
+				return nil, err
+			}
+			entry.Value = compacted.String()
+		}
+		reference = append(reference, entry)
+	}
+	return reference, nil
+}
+
+// ReadImageIndexSource reads a JSON file from which the image index is generated. A missing file results in nil
+// contents.
+func ReadImageIndexSource(file string) ([]byte, error) {
+	content, err := ioutil.ReadFile(file)
+	if os.IsNotExist(err) {
+		return nil, nil
+	}
+	return content, err
+}
+
+// WriteImageIndex writes the binary index of the metadata and the reference of a cell image. The size, the CRC-32
+// and the digest of the metadata.json and the reference.json the index was generated from are recorded so that
+// readers can detect an index which is out of date, and referenceJSON is nil if the image does not have a reference.
+func WriteImageIndex(indexFile string, metadata *MetaData, metadataJSON []byte, reference []ReferenceEntry,
+	referenceJSON []byte) error {
+	encoder := &imageIndexEncoder{strings: map[string]uint32{}}
+	encoder.writeNode(metadata)
+
+	var index bytes.Buffer
+	index.WriteString(imageIndexMagic)
+	writeBinary(&index, uint16(imageIndexVersion))
+	writeJSONFileHeader(&index, metadataJSON)
+	writeJSONFileHeader(&index, referenceJSON)
+	writeBinary(&index, uint32(len(reference)))
+	for _, entry := range reference {
+		writeIndexString(&index, entry.Key)
+		writeIndexString(&index, entry.Value)
+	}
+	writeBinary(&index, uint32(len(encoder.table)))
+	for _, value := range encoder.table {
+		writeIndexString(&index, value)
+	}
+	index.Write(encoder.tree.Bytes())
+	return ioutil.WriteFile(indexFile, index.Bytes(), 0666)
+}
+
+// imageIndexEncoder encodes the metadata tree while collecting the strings it refers to into a string table, so
+// that the strings repeated across the dependency tree are stored only once
+type imageIndexEncoder struct {
+	strings map[string]uint32
+	table   []string
+	tree    bytes.Buffer
+}
+
+func (encoder *imageIndexEncoder) writeIndex(value string) {
+	index, ok := encoder.strings[value]
+	if !ok {
+		index = uint32(len(encoder.table))
+		encoder.strings[value] = index
+		encoder.table = append(encoder.table, value)
+	}
+	writeBinary(&encoder.tree, index)
+}
+
+func (encoder *imageIndexEncoder) writeNode(metadata *MetaData) {
+	encoder.writeIndex(metadata.Organization)
+	encoder.writeIndex(metadata.Name)
+	encoder.writeIndex(metadata.Version)
+	encoder.writeIndex(metadata.Kind)
+	var componentNames []string
+	for name, component := range metadata.Components {
+		if component != nil {
+			componentNames = append(componentNames, name)
+		}
+	}
+	sort.Strings(componentNames)
+	writeBinary(&encoder.tree, uint32(len(componentNames)))
+	for _, name := range componentNames {
+		encoder.writeIndex(name)
+		var cells, composites map[string]*MetaData
+		if dependencies := metadata.Components[name].Dependencies; dependencies != nil {
+			cells = dependencies.Cells
+			composites = dependencies.Composites
+		}
+		encoder.writeDependencies(cells)
+		encoder.writeDependencies(composites)
+	}
+}
+
+func (encoder *imageIndexEncoder) writeDependencies(dependencies map[string]*MetaData) {
+	var aliases []string
+	for alias, dependency := range dependencies {
+		if dependency != nil {
+			aliases = append(aliases, alias)
+		}
+	}
+	sort.Strings(aliases)
+	writeBinary(&encoder.tree, uint32(len(aliases)))
+	for _, alias := range aliases {
+		encoder.writeIndex(alias)
+		encoder.writeNode(dependencies[alias])
+	}
+}
+
+// writeJSONFileHeader writes the size, the CRC-32 and the SHA-256 of a JSON file, or a size of -1 and an empty
+// digest if the file is missing
+func writeJSONFileHeader(buffer *bytes.Buffer, content []byte) {
+	if content == nil {
+		writeBinary(buffer, int64(-1))
+		writeBinary(buffer, uint32(0))
+		writeIndexString(buffer, "")
+		return
+	}
+	digest := sha256.Sum256(content)
+	writeBinary(buffer, int64(len(content)))
+	writeBinary(buffer, crc32.ChecksumIEEE(content))
+	writeIndexString(buffer, hex.EncodeToString(digest[:]))
+}
+
+func writeIndexString(buffer *bytes.Buffer, value string) {
+	writeBinary(buffer, uint32(len(value)))
+	buffer.WriteString(value)
+}
+
+func writeBinary(buffer *bytes.Buffer, value interface{}) {
+	// Writes to a bytes.Buffer do not fail
+	_ = binary.Write(buffer, binary.BigEndian, value)
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2019 WSO2 Inc. (http:www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http:www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package image
+
+import (
+	"bytes"
+	"crypto/sha256"
+	"encoding/hex"
+	"encoding/json"
+	"flag"
+	"hash/crc32"
+	"io/ioutil"
+	"os"
+	"path/filepath"
+	"reflect"
+	"testing"
+)
+
+// The index in testdata is also read by the tests of io.cellery.util.ImageIndex, which verifies that an index
+// written by the CLI is read back by the runtime. Run the tests with -update to write it again after changing the
+// layout of the index.
+var updateImageIndex = flag.Bool("update", false, "update the image index in testdata")
+
+func TestReadReference(t *testing.T) {
+	reference, err := ReadReference(filepath.Join("testdata", "reference.json"))
+	if err != nil {
+		t.Fatalf("failed to read the reference: %v", err)
+	}
+	expected := []ReferenceEntry{
+		{Key: "employee_host", Value: "{{instance_name}}--employee-service"},
+		{Key: "employee_api_url", Value: "http://{{instance_name}}--gateway-service:80/employee"},
+		{Key: "replicas", Value: "2"},
+		{Key: "gateway", Value: `{"port":80}`},
+	}
+	if !reflect.DeepEqual(reference, expected) {
+		t.Errorf("expected %v, got %v", expected, reference)
+	}
+}
+
+func TestReadReferenceWithoutReferenceFile(t *testing.T) {
+	reference, err := ReadReference(filepath.Join("testdata", "missing.json"))
+	if err != nil {
+		t.Fatalf("failed to read the reference: %v", err)
+	}
+	if reference != nil {
+		t.Errorf("expected no entries, got %v", reference)
+	}
+}
+
+func TestReadReferenceWhichIsNotAnObject(t *testing.T) {
+	dir := createTempDir(t)
+	defer os.RemoveAll(dir)
+	referenceFile := filepath.Join(dir, "reference.json")
+	writeFile(t, referenceFile, `["employee_host"]`)
+	if _, err := ReadReference(referenceFile); err == nil {
+		t.Error("expected an error for a reference which is not a JSON object")
+	}
+}
+
+func TestWriteImageIndex(t *testing.T) {
+	index := writeTestImageIndex(t, filepath.Join("testdata", "metadata.json"),
+		filepath.Join("testdata", "reference.json"))
+	indexFile := filepath.Join("testdata", "image-index.bin")
+	if *updateImageIndex {
+		if err := ioutil.WriteFile(indexFile, index, 0666); err != nil {
+			t.Fatalf("failed to update the image index: %v", err)
+		}
+	}
+	expected, err := ioutil.ReadFile(indexFile)
+	if err != nil {
+		t.Fatalf("failed to read the image index: %v", err)
+	}
+	if !bytes.Equal(index, expected) {
+		t.Errorf("image index does not match %s, run the tests with -update if the layout was changed", indexFile)
+	}
+}
+
+func TestWriteImageIndexWithoutReference(t *testing.T) {
+	index := writeTestImageIndex(t, filepath.Join("testdata", "metadata.json"),
+		filepath.Join("testdata", "missing.json"))
+	reader := bytes.NewReader(index)
+	magic := make([]byte, len(imageIndexMagic))
+	_, _ = reader.Read(magic)
+	if string(magic) != imageIndexMagic {
+		t.Fatalf("expected magic %s, got %s", imageIndexMagic, magic)
+	}
+	if version := readTestUint(t, reader, 2); version != imageIndexVersion {
+		t.Errorf("expected version %d, got %d", imageIndexVersion, version)
+	}
+	metadataContent, _ := ioutil.ReadFile(filepath.Join("testdata", "metadata.json"))
+	if size := readTestInt64(t, reader); size != int64(len(metadataContent)) {
+		t.Errorf("expected the size of the metadata, got %d", size)
+	}
+	if crc := readTestUint(t, reader, 4); crc != crc32.ChecksumIEEE(metadataContent) {
+		t.Errorf("expected the CRC-32 of the metadata, got %d", crc)
+	}
+	metadataDigest := sha256.Sum256(metadataContent)
+	if digest := readTestString(t, reader); digest != hex.EncodeToString(metadataDigest[:]) {
+		t.Errorf("expected the digest of the metadata, got %s", digest)
+	}
+	if size := readTestInt64(t, reader); size != -1 {
+		t.Errorf("expected the size of a missing reference, got %d", size)
+	}
+	if crc := readTestUint(t, reader, 4); crc != 0 {
+		t.Errorf("expected no reference CRC-32, got %d", crc)
+	}
+	if digest := readTestString(t, reader); digest != "" {
+		t.Errorf("expected an empty reference digest, got %s", digest)
+	}
+	if entries := readTestUint(t, reader, 4); entries != 0 {
+		t.Errorf("expected no reference entries, got %d", entries)
+	}
+}
+
+func TestWriteImageIndexStoresStringsOnce(t *testing.T) {
+	dependency := &MetaData{
+		CellImageName: CellImageName{Organization: "myorg", Name: "employee", Version: "1.0.0"},
+		Kind:          "Cell",
+	}
+	metadata := &MetaData{
+		CellImageName: CellImageName{Organization: "myorg", Name: "hr", Version: "1.0.0"},
+		Kind:          "Cell",
+		Components: map[string]*ComponentMetaData{
+			"hr": {Dependencies: &ComponentDependencies{Cells: map[string]*MetaData{
+				"employeeCellDep": dependency,
+				"missingCellDep":  nil,
+			}}},
+			"missing": nil,
+		},
+	}
+	encoder := &imageIndexEncoder{strings: map[string]uint32{}}
+	encoder.writeNode(metadata)
+	expected := []string{"myorg", "hr", "1.0.0", "Cell", "employeeCellDep", "employee"}
+	if !reflect.DeepEqual(encoder.table, expected) {
+		t.Errorf("expected string table %v, got %v", expected, encoder.table)
+	}
+}
+
+func writeTestImageIndex(t *testing.T, metadataFile string, referenceFile string) []byte {
+	metadataContent, err := ioutil.ReadFile(metadataFile)
+	if err != nil {
+		t.Fatalf("failed to read the metadata: %v", err)
+	}
+	metadata := &MetaData{}
+	if err = json.Unmarshal(metadataContent, metadata); err != nil {
+		t.Fatalf("failed to parse the metadata: %v", err)
+	}
+	reference, err := ReadReference(referenceFile)
+	if err != nil {
+		t.Fatalf("failed to read the reference: %v", err)
+	}
+	referenceContent, err := ReadImageIndexSource(referenceFile)
+	if err != nil {
+		t.Fatalf("failed to read the reference: %v", err)
+	}
+	dir := createTempDir(t)
+	defer os.RemoveAll(dir)
+	indexFile := filepath.Join(dir, "image-index.bin")
+	err = WriteImageIndex(indexFile, metadata, metadataContent, reference, referenceContent)
+	if err != nil {
+		t.Fatalf("failed to write the image index: %v", err)
+	}
+	index, err := ioutil.ReadFile(indexFile)
+	if err != nil {
+		t.Fatalf("failed to read the image index: %v", err)
+	}
+	return index
+}
+
+func readTestUint(t *testing.T, reader *bytes.Reader, size int) uint32 {
+	value := make([]byte, size)
+	if n, _ := reader.Read(value); n != size {
+		t.Fatal("unexpected end of the image index")
+	}
+	var result uint32
+	for _, b := range value {
+		result = result<<8 | uint32(b)
+	}
+	return result
+}
+
+func readTestInt64(t *testing.T, reader *bytes.Reader) int64 {
+	high := readTestUint(t, reader, 4)
+	low := readTestUint(t, reader, 4)
+	return int64(uint64(high)<<32 | uint64(low))
+}
+
+func readTestString(t *testing.T, reader *bytes.Reader) string {
+	value := make([]byte, readTestUint(t, reader, 4))
+	if n, _ := reader.Read(value); n != len(value) {
+		t.Fatal("unexpected end of the image index")
+	}
+	return string(value)
+}
+
+func createTempDir(t *testing.T) string {
+	dir, err := ioutil.TempDir("", "image-index")
+	if err != nil {
+		t.Fatalf("failed to create a temporary directory: %v", err)
+	}
+	return dir
+}
+
+func writeFile(t *testing.T, file string, content string) {
+	if err := ioutil.WriteFile(file, []byte(content), 0666); err != nil {
+		t.Fatalf("failed to write %s: %v", file, err)
+	}
+}
@@ -91,6 +91,7 @@ public class CelleryConstants {
     public static final String INSTANCE_NAME_PLACEHOLDER = "{{instance_name}}";
     public static final String REFERENCE_FILE_NAME = "reference.json";
     public static final String METADATA_FILE_NAME = "metadata.json";
+    public static final String IMAGE_INDEX_FILE_NAME = "image-index.bin";
 
     public static final String ANNOTATION_CELL_IMAGE_ORG = "mesh.cellery.io/cell-image-org";
     public static final String ANNOTATION_CELL_IMAGE_NAME = "mesh.cellery.io/cell-image-name";
@@ -108,4 +109,33 @@ public class CelleryConstants {
 
     public static final String CELLERY_ENV_VARIABLE = "cellery_env_";
     public static final String MESH_CELLERY_IO = "mesh.cellery.io";
+    public static final String CELLERY_CRD_VERSION = "v1alpha2";
+    public static final String DEFAULT_NAMESPACE = "default";
+    public static final String CONDITION_READY = "Ready";
+    public static final int INSTANCE_READY_TIMEOUT_SECONDS = 30 * 60;
+    public static final String DEPENDENCY_START_PARALLELISM_ENV_VAR = "CELLERY_DEPENDENCY_START_PARALLELISM";
+    public static final int DEFAULT_DEPENDENCY_START_PARALLELISM = 4;
+    public static final String IN_PROCESS_INSTANCE_START_ENV_VAR = "CELLERY_IN_PROCESS_INSTANCE_START";
+    public static final String IMAGE_CACHE_SIZE_ENV_VAR = "CELLERY_IMAGE_CACHE_SIZE_MB";
+    public static final long DEFAULT_IMAGE_CACHE_SIZE_MB = 2048;
+    public static final String TEST_PARALLELISM_ENV_VAR = "CELLERY_TEST_PARALLELISM";
+    public static final int DEFAULT_TEST_PARALLELISM = 4;
+    public static final String TEST_FAIL_ON_ERROR_ENV_VAR = "CELLERY_TEST_FAIL_ON_ERROR";
+    public static final String INCREMENTAL_BUILD_ENV_VAR = "CELLERY_INCREMENTAL_BUILD";
+    public static final String BUILD_INDEX_FILE_NAME = ".build-index.json";
+    public static final String API_DEFINITION_CACHE_DIR = ".api-definitions";
+    public static final String DOCKER_BUILD_PARALLELISM_ENV_VAR = "CELLERY_DOCKER_BUILD_PARALLELISM";
+    public static final int DEFAULT_DOCKER_BUILD_PARALLELISM = 4;
+    public static final int MODEL_CACHE_SIZE = 32;
+    public static final String JOB_NAME_LABEL = "job-name";
+    public static final String POD_PHASE_RUNNING = "Running";
+    public static final String POD_PHASE_SUCCEEDED = "Succeeded";
+    public static final String POD_PHASE_FAILED = "Failed";
+    public static final String JOB_CONDITION_COMPLETE = "Complete";
+    public static final String JOB_CONDITION_FAILED = "Failed";
+
+    // Kubernetes client engine constants
+    public static final String KUBERNETES_CLIENT_ENV_VAR = "CELLERY_KUBERNETES_CLIENT";
+    public static final String KUBECTL = "kubectl";
+    public static final String FIELD_MANAGER = "cellery";
 }
@@ -17,11 +17,8 @@
  */
 package io.cellery;
 
-import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import io.cellery.models.API;
 import io.cellery.models.Cell;
 import io.cellery.models.Composite;
@@ -31,7 +28,12 @@ import io.cellery.models.Port;
 import io.cellery.models.Test;
 import io.cellery.models.Web;
 import io.cellery.models.internal.ImageComponent;
+import io.cellery.util.Codec;
+import io.cellery.util.InstanceSnapshot;
 import io.cellery.util.KubernetesClient;
+import io.cellery.util.ModelCache;
+import io.cellery.util.ProcessExecutor;
+import io.cellery.util.ProcessResult;
 import io.fabric8.kubernetes.api.model.HTTPGetActionBuilder;
 import io.fabric8.kubernetes.api.model.HTTPHeader;
 import io.fabric8.kubernetes.api.model.HTTPHeaderBuilder;
@@ -39,7 +41,6 @@ import io.fabric8.kubernetes.api.model.Probe;
 import io.fabric8.kubernetes.api.model.ProbeBuilder;
 import io.fabric8.kubernetes.api.model.Quantity;
 import io.fabric8.kubernetes.api.model.ResourceRequirements;
-import io.fabric8.kubernetes.client.utils.Serialization;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.ballerinalang.model.values.BInteger;
@@ -49,47 +50,54 @@ import org.ballerinalang.model.values.BValue;
 import org.ballerinalang.model.values.BValueArray;
 import org.ballerinalang.util.exceptions.BallerinaException;
 
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintStream;
-import java.nio.charset.Charset;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
 import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
+import java.util.zip.ZipFile;
 
-import static io.cellery.CelleryConstants.CELL;
+import static io.cellery.CelleryConstants.ANNOTATION_CELL_IMAGE_DEPENDENCIES;
+import static io.cellery.CelleryConstants.ANNOTATION_CELL_IMAGE_NAME;
+import static io.cellery.CelleryConstants.ANNOTATION_CELL_IMAGE_ORG;
+import static io.cellery.CelleryConstants.ANNOTATION_CELL_IMAGE_VERSION;
 import static io.cellery.CelleryConstants.DEFAULT_GATEWAY_PORT;
 import static io.cellery.CelleryConstants.DEFAULT_GATEWAY_PROTOCOL;
 import static io.cellery.CelleryConstants.DEFAULT_PARAMETER_VALUE;
 import static io.cellery.CelleryConstants.KIND;
 import static io.cellery.CelleryConstants.LIMITS;
 import static io.cellery.CelleryConstants.LIVENESS;
-import static io.cellery.CelleryConstants.MESH_CELLERY_IO;
+import static io.cellery.CelleryConstants.MODEL_CACHE_SIZE;
 import static io.cellery.CelleryConstants.READINESS;
 import static io.cellery.CelleryConstants.REQUESTS;
 import static io.cellery.CelleryConstants.RESOURCES;
@@ -101,19 +109,17 @@ import static io.cellery.CelleryConstants.TARGET;
 public class CelleryUtils {
     private static final String LOWER_CASE_ALPHA_NUMERIC_STRING = "0123456789abcdefghijklmnopqrstuvwxyz";
     private static SecureRandom random = new SecureRandom();
-
-    /**
-     * Returns swagger file as a String.
-     *
-     * @param path     swagger file path
-     * @param encoding string encoding
-     * @return swagger file as a String
-     * @throws IOException if unable to read file
-     */
-    public static String readSwaggerFile(String path, Charset encoding) throws IOException {
-        byte[] encoded = Files.readAllBytes(Paths.get(path));
-        return new String(encoded, encoding);
-    }
+    private static final int UNZIP_BUFFER_SIZE = 64 * 1024;
+    // Zips smaller than this are extracted sequentially as the overhead of parallel extraction outweighs the gain
+    private static final long PARALLEL_UNZIP_THRESHOLD = 4 * 1024 * 1024;
+    private static final ExecutorService UNZIP_EXECUTOR = Executors.newFixedThreadPool(
+            Math.min(4, Runtime.getRuntime().availableProcessors()), runnable -> {
+                Thread thread = new Thread(runnable, "cellery-unzip");
+                thread.setDaemon(true);
+                return thread;
+            });
+    // Cell image YAMLs are read repeatedly while creating instances and running tests
+    private static final ModelCache MODEL_CACHE = new ModelCache(MODEL_CACHE_SIZE);
 
     /**
      * Returns valid kubernetes name.
@@ -384,6 +390,32 @@ public class CelleryUtils {
         Files.write(Paths.get(targetPath), context.getBytes(StandardCharsets.UTF_8));
     }
 
+    /**
+     * Serialize an object to a YAML file. The YAML is streamed to a temporary file which then replaces the target
+     * file, so that a partially written file is never visible. Create the required directories if they don't exist.
+     *
+     * @param object     object to serialize
+     * @param targetPath target file path
+     * @throws IOException If an error occurs when writing to the file
+     */
+    public static void writeYaml(Object object, String targetPath) throws IOException {
+        Path target = Paths.get(targetPath).toAbsolutePath();
+        Files.createDirectories(target.getParent());
+        Path tempFile = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                Codec.writeYaml(object, writer);
+            }
+            try {
+                Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
     /**
      * Append content to a file.
      *
@@ -410,7 +442,12 @@ public class CelleryUtils {
      * @return Yaml as a string.
      */
     public static <T> String toYaml(T object) {
-        return Serialization.asYaml(object);
+        try {
+            return Codec.toYaml(object);
+        } catch (IOException e) {
+            throw new BallerinaException("Error while serializing " + object.getClass().getSimpleName() +
+                    " to YAML. " + e.getMessage());
+        }
     }
 
     /**
@@ -449,8 +486,9 @@ public class CelleryUtils {
      * Copy file target/resources directory.
      *
      * @param sourcePath source file/directory path
+     * @return path of the copied file/directory
      */
-    public static void copyResourceToTarget(String sourcePath) {
+    public static Path copyResourceToTarget(String sourcePath) {
         File src = new File(sourcePath);
         String targetPath = TARGET + File.separator + RESOURCES + File.separator + src.getName();
         File dst = new File(targetPath);
@@ -460,7 +498,7 @@ public class CelleryUtils {
                 if (Files.isDirectory(dst.toPath())) {
                     // if destination is directory
                     FileUtils.copyFileToDirectory(src, dst);
-                } else {
+                } else if (!isSameFile(src, dst)) {
                     // if destination is file
                     FileUtils.copyFile(src, dst);
                 }
@@ -472,71 +510,63 @@ public class CelleryUtils {
             throw new BallerinaException("Error occurred while copying resource file " + sourcePath +
                     ". " + e.getMessage());
         }
+        return dst.toPath();
     }
 
     /**
-     * Executes a shell command.
+     * Check whether a file was copied to the destination and has not changed since. Copies preserve the last
+     * modified time of the source.
+     */
+    private static boolean isSameFile(File src, File dst) {
+        return dst.isFile() && dst.length() == src.length() && dst.lastModified() == src.lastModified();
+    }
+
+    /**
+     * Executes a shell command. Only the tail of the output is retained, so the output should only be logged.
      *
      * @param command          command to execute
      * @param workingDirectory working directory
      * @param stdout           stdout of the command
      * @param stderr           stderr of the command
-     * @return stdout/stderr
+     * @return tail of stdout/stderr
      */
     public static String executeShellCommand(String command, Path workingDirectory, Writer stdout, Writer stderr) {
-        StringBuilder stdOut = new StringBuilder();
-        StringBuilder stdErr = new StringBuilder();
-        ProcessBuilder processBuilder = new ProcessBuilder("/bin/bash", "-c", command);
-
-        ExecutorService executor = Executors.newFixedThreadPool(2);
-        int exitCode;
-        try {
-            if (workingDirectory != null) {
-                File workDirectory = workingDirectory.toFile();
-                if (workDirectory.exists()) {
-                    processBuilder.directory(workDirectory);
-                }
-            }
-            Process process = processBuilder.start();
-
-            StreamGobbler outputStreamGobbler = new StreamGobbler(process.getInputStream(), msg -> {
-                stdOut.append(msg);
-                stdout.writeMessage(msg);
-            });
-            StreamGobbler errorStreamGobbler = new StreamGobbler(process.getErrorStream(), msg -> {
-                stdErr.append(msg);
-                stderr.writeMessage(msg);
-            });
-
-            executor.execute(outputStreamGobbler);
-            executor.execute(errorStreamGobbler);
-
-            exitCode = process.waitFor();
-            if (exitCode > 0) {
-                throw new BallerinaException("Command " + command + " exited with exit code " + exitCode +
-                        " message: " + stdErr.toString());
-            }
+        return getCommandOutput(ProcessExecutor.execute(workingDirectory, stdout, stderr, Collections.emptyMap(), 0,
+                "/bin/bash", "-c", command), command, workingDirectory);
+    }
 
-        } catch (IOException e) {
-            throw new BallerinaException(
-                    "Error occurred while executing the command '" + command + "', " + "from directory '"
-                            + workingDirectory.toString(), e);
-        } catch (InterruptedException e) {
-            throw new BallerinaException(
-                    "InterruptedException occurred while executing the command '" + command + "', " + "from directory '"
-                            + workingDirectory.toString(), e);
-        } finally {
-            executor.shutdownNow();
-        }
+    /**
+     * Executes a shell command. Only the tail of the output is retained, so the output should only be logged.
+     *
+     * @param command          command to execute
+     * @param workingDirectory working directory
+     * @param stdout           stdout of the command
+     * @param stderr           stderr of the command
+     * @return tail of stdout/stderr
+     */
+    public static String executeShellCommand(Path workingDirectory, Writer stdout, Writer stderr,
+                                             Map<String, String> environment, String... command) {
+        return getCommandOutput(ProcessExecutor.execute(workingDirectory, stdout, stderr, environment, 0, command),
+                String.join(" ", command), workingDirectory);
+    }
 
-        if (stdOut.toString().isEmpty()) {
-            return stdErr.toString();
-        }
-        return stdOut.toString();
+    /**
+     * Executes a shell command and reads its complete output.
+     *
+     * @param command          command to execute
+     * @param workingDirectory working directory
+     * @param stdout           stdout of the command
+     * @param stderr           stderr of the command
+     * @return stdout/stderr
+     */
+    public static String readShellCommandOutput(String command, Path workingDirectory, Writer stdout,
+                                                Writer stderr) {
+        return getCompleteCommandOutput(ProcessExecutor.execute(workingDirectory, stdout, stderr,
+                Collections.emptyMap(), 0, true, "/bin/bash", "-c", command), command, workingDirectory);
     }
 
     /**
-     * Executes a shell command.
+     * Executes a shell command and reads its complete output.
      *
      * @param command          command to execute
      * @param workingDirectory working directory
@@ -544,63 +574,57 @@ public class CelleryUtils {
      * @param stderr           stderr of the command
      * @return stdout/stderr
      */
-    public static String executeShellCommand(Path workingDirectory, Writer stdout, Writer stderr,
-                                             Map<String, String> environment, String... command) {
-        StringBuilder stdOut = new StringBuilder();
-        StringBuilder stdErr = new StringBuilder();
+    public static String readShellCommandOutput(Path workingDirectory, Writer stdout, Writer stderr,
+                                                Map<String, String> environment, String... command) {
+        return getCompleteCommandOutput(ProcessExecutor.execute(workingDirectory, stdout, stderr, environment, 0,
+                true, command), String.join(" ", command), workingDirectory);
+    }
 
-        // Set environment variables
-        ProcessBuilder processBuilder = new ProcessBuilder(command);
-        Map<String, String> processEnvironment = processBuilder.environment();
-        for (Map.Entry<String, String> environmentEntry : environment.entrySet()) {
-            processEnvironment.put(environmentEntry.getKey(), environmentEntry.getValue());
+    /**
+     * Wait for a command to complete and get its output, failing if any of the output was dropped.
+     */
+    private static String getCompleteCommandOutput(CompletableFuture<ProcessResult> process, String command,
+                                                   Path workingDirectory) {
+        String output = getCommandOutput(process, command, workingDirectory);
+        ProcessResult result = process.join();
+        if (result.isStdoutTruncated() || result.isStderrTruncated()) {
+            throw new BallerinaException("Output of the command " + command + " is too large to be read");
         }
+        return output;
+    }
 
-        ExecutorService executor = Executors.newFixedThreadPool(2);
-        int exitCode;
+    /**
+     * Wait for a command to complete and get its output.
+     *
+     * @param process          future of the process executing the command
+     * @param command          command executed
+     * @param workingDirectory working directory
+     * @return stdout/stderr
+     */
+    private static String getCommandOutput(CompletableFuture<ProcessResult> process, String command,
+                                           Path workingDirectory) {
+        ProcessResult result;
         try {
-            if (workingDirectory != null) {
-                File workDirectory = workingDirectory.toFile();
-                if (workDirectory.exists()) {
-                    processBuilder.directory(workDirectory);
-                }
-            }
-            Process process = processBuilder.start();
-
-            StreamGobbler outputStreamGobbler = new StreamGobbler(process.getInputStream(), msg -> {
-                stdOut.append(msg);
-                stdout.writeMessage(msg);
-            });
-            StreamGobbler errorStreamGobbler = new StreamGobbler(process.getErrorStream(), msg -> {
-                stdErr.append(msg);
-                stderr.writeMessage(msg);
-            });
-
-            executor.execute(outputStreamGobbler);
-            executor.execute(errorStreamGobbler);
-
-            exitCode = process.waitFor();
-            if (exitCode > 0) {
-                throw new BallerinaException("Command " + String.join(" ", command) +
-                        " exited with exit code " + exitCode + " message: " + stdErr.toString());
-            }
-
-        } catch (IOException e) {
+            result = process.get();
+        } catch (ExecutionException e) {
             throw new BallerinaException(
-                    "Error occurred while executing the command '" + String.join(" ", command) + "', " +
-                            "from directory '" + workingDirectory.toString(), e);
+                    "Error occurred while executing the command '" + command + "', " + "from directory '"
+                            + workingDirectory, e.getCause());
         } catch (InterruptedException e) {
+            process.cancel(true);
+            Thread.currentThread().interrupt();
             throw new BallerinaException(
-                    "InterruptedException occurred while executing the command '" + String.join(" ", command) +
-                            "', " + "from directory '" + workingDirectory.toString(), e);
-        } finally {
-            executor.shutdownNow();
+                    "InterruptedException occurred while executing the command '" + command + "', " +
+                            "from directory '" + workingDirectory, e);
         }
-
-        if (stdOut.toString().isEmpty()) {
-            return stdErr.toString();
+        if (result.getExitCode() > 0) {
+            throw new BallerinaException("Command " + command + " exited with exit code " + result.getExitCode() +
+                    " message: " + result.getStderr());
+        }
+        if (result.getStdout().isEmpty()) {
+            return result.getStderr();
         }
-        return stdOut.toString();
+        return result.getStdout();
     }
 
     /**
@@ -611,8 +635,8 @@ public class CelleryUtils {
      */
     public static Cell readCellYaml(String destinationPath) {
         Cell cell;
-        try (FileInputStream fileInputStream = new FileInputStream(destinationPath)) {
-            cell = Serialization.unmarshal(fileInputStream, Cell.class);
+        try {
+            cell = MODEL_CACHE.read(Paths.get(destinationPath), Cell.class);
         } catch (IOException e) {
             throw new BallerinaException("Unable to read Cell image file " + destinationPath + ". \nDid you " +
                     "pull/build the cell image ?");
@@ -631,8 +655,8 @@ public class CelleryUtils {
      */
     public static Composite readCompositeYaml(String destinationPath) {
         Composite composite;
-        try (FileInputStream fileInputStream = new FileInputStream(destinationPath)) {
-            composite = Serialization.unmarshal(fileInputStream, Composite.class);
+        try {
+            composite = MODEL_CACHE.read(Paths.get(destinationPath), Composite.class);
         } catch (IOException e) {
             throw new BallerinaException("Unable to read Cell image file " + destinationPath + ". \nDid you " +
                     "pull/build the cell image ?");
@@ -657,36 +681,25 @@ public class CelleryUtils {
     }
 
     /**
-     * StreamGobbler to handle process builder output.
+     * Check if a cell instance is running.
+     *
+     * @param instance name of the instance
+     * @return whether cell instance is running or note
      */
-    private static class StreamGobbler implements Runnable {
-        private InputStream inputStream;
-        private Consumer<String> consumer;
-
-        StreamGobbler(InputStream inputStream, Consumer<String> consumer) {
-            this.inputStream = inputStream;
-            this.consumer = consumer;
-        }
-
-        @Override
-        public void run() {
-            new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)).lines()
-                    .forEach(consumer);
-        }
+    public static boolean isInstanceRunning(String instance, String kind) {
+        return KubernetesClient.getInstance(instance, kind) != null;
     }
 
     /**
-     * Check if a cell instance is running.
+     * Check if a cell instance is running using a snapshot of the instances in the runtime.
      *
+     * @param snapshot instance snapshot
      * @param instance name of the instance
-     * @return whether cell instance is running or note
+     * @param kind     instance kind
+     * @return whether cell instance is running or not
      */
-    public static boolean isInstanceRunning(String instance, String kind) {
-        if (kind.equals(CELL)) {
-            return !(KubernetesClient.getCells(instance).contains("not found"));
-        } else {
-            return !(KubernetesClient.getComposites(instance).contains("not found"));
-        }
+    public static boolean isInstanceRunning(InstanceSnapshot snapshot, String instance, String kind) {
+        return snapshot.getInstance(instance, kind) != null;
     }
 
     /**
@@ -697,19 +710,25 @@ public class CelleryUtils {
      * @return image name
      */
     public static String getInstanceImageName(String instance, String kind) {
-        String image;
-        if (kind.equals(CELL)) {
-            image = KubernetesClient.getCells(instance);
-        } else {
-            image = KubernetesClient.getComposites(instance);
-        }
+        return getImageName(getInstanceAnnotations(KubernetesClient.getInstance(instance, kind), instance));
+    }
+
+    /**
+     * Get the fully qualified image name of an instance using a snapshot of the instances in the runtime.
+     *
+     * @param snapshot instance snapshot
+     * @param instance instance name
+     * @param kind     instance kind
+     * @return image name
+     */
+    public static String getInstanceImageName(InstanceSnapshot snapshot, String instance, String kind) {
+        return getImageName(getInstanceAnnotations(snapshot.getInstance(instance, kind), instance));
+    }
 
-        JsonObject imageJson = new Gson().fromJson(image, JsonObject.class);
-        JsonObject cellAnnotations = imageJson.get("metadata").getAsJsonObject().get("annotations").
-                getAsJsonObject();
-        return cellAnnotations.get(MESH_CELLERY_IO + "/cell-image-org").getAsString() + File.separator +
-                cellAnnotations.get(MESH_CELLERY_IO + "/cell-image-name").getAsString() + ":" + cellAnnotations.
-                get(MESH_CELLERY_IO + "/cell-image-version").getAsString();
+    private static String getImageName(Map<String, String> cellAnnotations) {
+        return cellAnnotations.get(ANNOTATION_CELL_IMAGE_ORG) + File.separator +
+                cellAnnotations.get(ANNOTATION_CELL_IMAGE_NAME) + ":" +
+                cellAnnotations.get(ANNOTATION_CELL_IMAGE_VERSION);
     }
 
     /**
@@ -724,18 +743,34 @@ public class CelleryUtils {
      */
     public static String getDependentInstanceName(String parentInstance, String dependentOrg, String dependentName,
                                                   String dependentVersion, String dependentKind) {
+        return getDependentInstanceName(getInstanceAnnotations(KubernetesClient.getInstance(parentInstance,
+                dependentKind), parentInstance), dependentOrg, dependentName, dependentVersion);
+    }
+
+    /**
+     * Get dependent instance name using its image name and a snapshot of the instances in the runtime.
+     *
+     * @param snapshot         instance snapshot
+     * @param parentInstance   parent instance name
+     * @param dependentOrg     dependent instance org
+     * @param dependentName    dependent instance name
+     * @param dependentVersion dependent instance version
+     * @param dependentKind    dependent instance kind
+     * @return dependent instance name
+     */
+    public static String getDependentInstanceName(InstanceSnapshot snapshot, String parentInstance,
+                                                  String dependentOrg, String dependentName, String dependentVersion,
+                                                  String dependentKind) {
+        return getDependentInstanceName(getInstanceAnnotations(snapshot.getInstance(parentInstance, dependentKind),
+                parentInstance), dependentOrg, dependentName, dependentVersion);
+    }
+
+    private static String getDependentInstanceName(Map<String, String> parentAnnotations, String dependentOrg,
+                                                   String dependentName, String dependentVersion) {
         String instanceName = "";
-        String cellImage;
-        if (dependentKind.equals(CELL)) {
-            cellImage = KubernetesClient.getCells(parentInstance);
-        } else {
-            cellImage = KubernetesClient.getComposites(parentInstance);
-        }
-        JsonObject imageJson = new Gson().fromJson(cellImage, JsonObject.class);
-        String cellDependenciesJson = imageJson.get("metadata").getAsJsonObject().get("annotations").
-                getAsJsonObject().get(MESH_CELLERY_IO + "/cell-dependencies").getAsString();
+        String cellDependenciesJson = parentAnnotations.get(ANNOTATION_CELL_IMAGE_DEPENDENCIES);
 
-        JsonArray cellDependencies = new JsonParser().parse(cellDependenciesJson).getAsJsonArray();
+        JsonArray cellDependencies = Codec.fromJson(cellDependenciesJson, JsonArray.class);
 
         for (JsonElement cellDependency : cellDependencies) {
             if (cellDependency.getAsJsonObject().get("org").getAsString().equals(dependentOrg) &&
@@ -748,59 +783,101 @@ public class CelleryUtils {
     }
 
     /**
-     * Extract a zip file to a given location.
+     * Get the annotations of a running instance.
+     *
+     * @param runningInstance running instance or null if the instance is not available
+     * @param instance        instance name
+     * @return instance annotations
+     */
+    private static Map<String, String> getInstanceAnnotations(Composite runningInstance, String instance) {
+        if (runningInstance == null) {
+            throw new BallerinaException("Instance " + instance + " not found");
+        }
+        return runningInstance.getMetadata().getAnnotations();
+    }
+
+    /**
+     * Extract a zip file to a given location. Entries are read through the central directory of the zip and large
+     * zips are extracted in parallel.
      *
      * @param zipFilePath path to the zip file
      * @param destDir location which the zip file will be extracted to
-     * @throws IOException if zip extraction fails
+     * @throws BallerinaException if zip extraction fails
      */
     public static void unzip(String zipFilePath, String destDir) {
-        PrintStream out = System.out;
-        File dir = new File(destDir);
-        // create output directory if it doesn't exist
-        if (!dir.exists()) {
-            boolean dirCreated = dir.mkdirs();
-            if (!dirCreated && !dir.exists()) {
-                out.println("Failed to create directory " + dir);
-                throw new BallerinaException("Failed to create directory " + dir);
+        Path destination = Paths.get(destDir).toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(destination);
+        } catch (IOException e) {
+            throw new BallerinaException("Failed to create directory " + destination);
+        }
+        try (ZipFile zipFile = new ZipFile(zipFilePath)) {
+            Map<ZipEntry, Path> files = new LinkedHashMap<>();
+            Set<Path> directories = new HashSet<>();
+            long totalSize = 0;
+            for (ZipEntry zipEntry : Collections.list(zipFile.entries())) {
+                Path target = destination.resolve(zipEntry.getName()).normalize();
+                // Prevent entries from being written outside the destination (zip slip)
+                if (!target.startsWith(destination)) {
+                    throw new BallerinaException("Invalid entry " + zipEntry.getName() + " in zip file " +
+                            zipFilePath);
+                }
+                if (zipEntry.isDirectory()) {
+                    directories.add(target);
+                } else {
+                    directories.add(target.getParent());
+                    files.put(zipEntry, target);
+                    totalSize += Math.max(zipEntry.getSize(), 0);
+                }
             }
-        }
-        //buffer for read and write data to file
-        byte[] buffer = new byte[1024];
-        try (FileInputStream fileInputStream = new FileInputStream(zipFilePath)) {
-            if (!zipFilePath.isEmpty()) {
-                try (ZipInputStream zipInputStream = new ZipInputStream(fileInputStream)) {
-                    ZipEntry zipEntry = zipInputStream.getNextEntry();
-                    while (zipEntry != null) {
-                        String fileName = zipEntry.getName();
-                        File newFile = new File(destDir + File.separator + fileName);
-                        //create directories for sub directories in zip
-                        File subDir = new File(newFile.getParent());
-                        boolean dirCreated = subDir.mkdirs();
-                        if (!dirCreated && !subDir.exists()) {
-                            out.println("Failed to create sub directory " + subDir);
-                            throw new BallerinaException("Failed to create sub directory " + subDir);
-                        }
-                        try (FileOutputStream fileOutputStream = new FileOutputStream(newFile)) {
-                            int len;
-                            while ((len = zipInputStream.read(buffer)) > 0) {
-                                fileOutputStream.write(buffer, 0, len);
-                            }
-                            fileOutputStream.close();
-                            zipInputStream.closeEntry();
-                            zipEntry = zipInputStream.getNextEntry();
-                        }
-                    }
-                    zipInputStream.closeEntry();
-                    zipInputStream.close();
-                    fileInputStream.close();
+            for (Path directory : directories) {
+                try {
+                    Files.createDirectories(directory);
+                } catch (IOException e) {
+                    throw new BallerinaException("Failed to create sub directory " + directory);
                 }
             }
-        } catch (IOException e) {
+            if (files.size() > 1 && totalSize >= PARALLEL_UNZIP_THRESHOLD) {
+                CompletableFuture.allOf(files.entrySet().stream()
+                        .map(file -> CompletableFuture.runAsync(() -> extractEntry(zipFile, file.getKey(),
+                                file.getValue()), UNZIP_EXECUTOR))
+                        .toArray(CompletableFuture[]::new)).join();
+            } else {
+                files.forEach((zipEntry, target) -> extractEntry(zipFile, zipEntry, target));
+            }
+        } catch (IOException | UncheckedIOException | CompletionException e) {
             throw new BallerinaException("Error while extracting file " + zipFilePath);
         }
     }
 
+    /**
+     * Extract a single entry of a zip file. The extracted file keeps the modification time of the entry.
+     *
+     * @param zipFile zip file
+     * @param zipEntry entry to be extracted
+     * @param target file to which the entry is extracted
+     */
+    private static void extractEntry(ZipFile zipFile, ZipEntry zipEntry, Path target) {
+        byte[] buffer = new byte[UNZIP_BUFFER_SIZE];
+        try (InputStream inputStream = zipFile.getInputStream(zipEntry);
+             OutputStream outputStream = Files.newOutputStream(target)) {
+            int len;
+            while ((len = inputStream.read(buffer)) > 0) {
+                outputStream.write(buffer, 0, len);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        FileTime lastModified = zipEntry.getLastModifiedTime();
+        if (lastModified != null) {
+            try {
+                Files.setLastModifiedTime(target, lastModified);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
     /**
      * Generate a random string.
      *
@@ -815,23 +892,6 @@ public class CelleryUtils {
         return sb.toString();
     }
 
-    /**
-     * Replace a string in a file.
-     *
-     * @param srcPath path to the file
-     * @param oldString string to be replaced
-     * @param newString string which will be replaced by
-     * @throws IOException
-     */
-    public static void replaceInFile(String srcPath, String oldString, String newString) throws IOException {
-        Path path = Paths.get(srcPath);
-        Charset charset = StandardCharsets.UTF_8;
-
-        String content = new String(Files.readAllBytes(path), charset);
-        content = content.replaceAll(oldString, newString);
-        Files.write(path, content.getBytes(charset));
-    }
-
     /**
      * Get a list of files in a directory for a given extension.
      *
@@ -866,4 +926,23 @@ public class CelleryUtils {
     public static String removePrefix(String s, String prefix) {
         return StringUtils.removeStart(s, prefix);
     }
+
+    /**
+     * Get the integer value of an environment variable.
+     *
+     * @param name         name of the environment variable
+     * @param defaultValue value used if the environment variable is not set or is not a valid integer
+     * @return value of the environment variable
+     */
+    public static int getIntEnvironmentVariable(String name, int defaultValue) {
+        String value = System.getenv(name);
+        if (StringUtils.isNotEmpty(value)) {
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                printWarning("Invalid value " + value + " for " + name + ". Using " + defaultValue);
+            }
+        }
+        return defaultValue;
+    }
 }
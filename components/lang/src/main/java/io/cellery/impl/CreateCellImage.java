@@ -17,7 +17,8 @@
  */
 package io.cellery.impl;
 
-import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
 import io.cellery.CelleryConstants;
 import io.cellery.models.API;
 import io.cellery.models.APIDefinition;
@@ -50,6 +51,10 @@ import io.cellery.models.Web;
 import io.cellery.models.internal.Dependency;
 import io.cellery.models.internal.Image;
 import io.cellery.models.internal.ImageComponent;
+import io.cellery.util.BuildIndex;
+import io.cellery.util.Codec;
+import io.cellery.util.DockerBuildContext;
+import io.cellery.util.DockerImageBuilder;
 import io.fabric8.kubernetes.api.model.Container;
 import io.fabric8.kubernetes.api.model.ContainerBuilder;
 import io.fabric8.kubernetes.api.model.ContainerPortBuilder;
@@ -72,16 +77,12 @@ import org.ballerinalang.natives.annotations.Argument;
 import org.ballerinalang.natives.annotations.BallerinaFunction;
 import org.ballerinalang.natives.annotations.ReturnType;
 import org.ballerinalang.util.exceptions.BallerinaException;
-import org.ballerinax.docker.generator.DockerArtifactHandler;
-import org.ballerinax.docker.generator.exceptions.DockerGenException;
-import org.ballerinax.docker.generator.models.DockerModel;
-import org.json.JSONArray;
-import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -89,6 +90,12 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -100,6 +107,7 @@ import static io.cellery.CelleryConstants.AUTO_SCALING_METRIC_RESOURCE;
 import static io.cellery.CelleryConstants.AUTO_SCALING_METRIC_RESOURCE_CPU;
 import static io.cellery.CelleryConstants.AUTO_SCALING_METRIC_RESOURCE_MEMORY;
 import static io.cellery.CelleryConstants.BTYPE_STRING;
+import static io.cellery.CelleryConstants.BUILD_INDEX_FILE_NAME;
 import static io.cellery.CelleryConstants.CELL;
 import static io.cellery.CelleryConstants.CELLERY;
 import static io.cellery.CelleryConstants.CELLS;
@@ -108,13 +116,16 @@ import static io.cellery.CelleryConstants.COMPOSITE;
 import static io.cellery.CelleryConstants.COMPOSITES;
 import static io.cellery.CelleryConstants.CONCURRENCY_TARGET;
 import static io.cellery.CelleryConstants.DEFAULT_GATEWAY_PORT;
+import static io.cellery.CelleryConstants.DEFAULT_DOCKER_BUILD_PARALLELISM;
 import static io.cellery.CelleryConstants.DEFAULT_GATEWAY_PROTOCOL;
 import static io.cellery.CelleryConstants.DEPENDENCIES;
+import static io.cellery.CelleryConstants.DOCKER_BUILD_PARALLELISM_ENV_VAR;
 import static io.cellery.CelleryConstants.ENV_VARS;
 import static io.cellery.CelleryConstants.EXPOSE;
 import static io.cellery.CelleryConstants.GATEWAY_PORT;
 import static io.cellery.CelleryConstants.GATEWAY_SERVICE;
 import static io.cellery.CelleryConstants.IMAGE_SOURCE;
+import static io.cellery.CelleryConstants.INCREMENTAL_BUILD_ENV_VAR;
 import static io.cellery.CelleryConstants.INGRESSES;
 import static io.cellery.CelleryConstants.INSTANCE_NAME_PLACEHOLDER;
 import static io.cellery.CelleryConstants.KIND;
@@ -129,20 +140,24 @@ import static io.cellery.CelleryConstants.PROTOCOL_GRPC;
 import static io.cellery.CelleryConstants.PROTOCOL_TCP;
 import static io.cellery.CelleryConstants.PROTO_FILE;
 import static io.cellery.CelleryConstants.REFERENCE_FILE_NAME;
+import static io.cellery.CelleryConstants.RESOURCES;
 import static io.cellery.CelleryConstants.SCALING_POLICY;
 import static io.cellery.CelleryConstants.TARGET;
 import static io.cellery.CelleryConstants.VERSION;
 import static io.cellery.CelleryConstants.YAML;
 import static io.cellery.CelleryUtils.copyResourceToTarget;
 import static io.cellery.CelleryUtils.getApi;
+import static io.cellery.CelleryUtils.getIntEnvironmentVariable;
 import static io.cellery.CelleryUtils.getValidName;
+import static io.cellery.CelleryUtils.printDebug;
+import static io.cellery.CelleryUtils.printInfo;
 import static io.cellery.CelleryUtils.printWarning;
 import static io.cellery.CelleryUtils.processEnvVars;
 import static io.cellery.CelleryUtils.processProbes;
 import static io.cellery.CelleryUtils.processResources;
 import static io.cellery.CelleryUtils.processWebIngress;
-import static io.cellery.CelleryUtils.toYaml;
 import static io.cellery.CelleryUtils.writeToFile;
+import static io.cellery.CelleryUtils.writeYaml;
 
 /**
  * Native function cellery:createImage.
@@ -160,6 +175,9 @@ public class CreateCellImage extends BlockingNativeCallableUnit {
     private static final Logger log = LoggerFactory.getLogger(CreateCellImage.class);
 
     private Image image = new Image();
+    private BuildIndex buildIndex;
+    // Docker directories of the DockerSource components by image tag, in the order of the components
+    private Map<String, String> dockerBuilds = new LinkedHashMap<>();
 
     public void execute(Context ctx) {
         LinkedHashMap nameStruct = ((BMap) ctx.getNullableRefArgument(1)).getMap();
@@ -169,20 +187,81 @@ public class CreateCellImage extends BlockingNativeCallableUnit {
         final BMap cellImageArg = (BMap) ctx.getNullableRefArgument(0);
         image.setCompositeImage("Composite".equals(cellImageArg.getType().getName()));
         LinkedHashMap<?, ?> components = ((BMap) cellImageArg.getMap().get("components")).getMap();
+        boolean incrementalBuild = "true".equalsIgnoreCase(System.getenv(INCREMENTAL_BUILD_ENV_VAR));
+        buildIndex = incrementalBuild
+                ? BuildIndex.load(Paths.get(OUTPUT_DIRECTORY, BUILD_INDEX_FILE_NAME))
+                : BuildIndex.disabled();
+        // The generated artifacts depend only on the image name and the cell image record, which includes the API
+        // definitions read from swagger files
+        String inputs = BuildIndex.fingerprint(image.getOrgName(), image.getCellName(), image.getCellVersion(),
+                cellImageArg.stringValue());
         try {
             processComponents(components);
-            generateCellReference();
+            buildDockerImages();
+            generateIfChanged(Paths.get(OUTPUT_DIRECTORY, "ref", REFERENCE_FILE_NAME), inputs,
+                    this::generateCellReference);
+            // The CLI rewrites the metadata file after the build, so it never matches a recorded fingerprint and is
+            // always generated
+            Path metadataPath = Paths.get(OUTPUT_DIRECTORY, CELLERY, METADATA_FILE_NAME);
+            buildIndex.recordOutput(metadataPath);
             generateMetadataFile(components);
+            Path yamlPath = Paths.get(OUTPUT_DIRECTORY, CELLERY, image.getCellName() + YAML);
             if (image.isCompositeImage()) {
-                generateComposite(image);
+                generateIfChanged(yamlPath, inputs, () -> generateComposite(image));
             } else {
                 if (cellImageArg.getMap().containsKey("globalPublisher")) {
                     processGlobalAPIPublisher(((BMap) cellImageArg.getMap().get("globalPublisher")).getMap());
                 }
-                generateCell(image);
+                generateIfChanged(yamlPath, inputs, () -> generateCell(image));
+            }
+            if (incrementalBuild) {
+                pruneOutputs();
             }
         } catch (BallerinaException e) {
             ctx.setReturnValues(BLangVMErrors.createError(ctx, e.getMessage()));
+        } finally {
+            try {
+                buildIndex.save();
+            } catch (IOException e) {
+                printWarning("Failed to save the build index. " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Generate an artifact unless it was generated from the same inputs by the previous build and is unchanged.
+     *
+     * @param output    path of the generated artifact
+     * @param inputs    fingerprint of the inputs of the artifact
+     * @param generator generates the artifact
+     */
+    private void generateIfChanged(Path output, String inputs, Runnable generator) {
+        buildIndex.recordOutput(output);
+        if (buildIndex.isUpToDate(output, inputs)) {
+            printDebug("Skipped generating unchanged artifact " + output);
+            return;
+        }
+        generator.run();
+        try {
+            buildIndex.update(output, inputs);
+        } catch (IOException e) {
+            printWarning("Failed to fingerprint " + output + ". " + e.getMessage());
+        }
+    }
+
+    /**
+     * Remove the outputs of the previous build which were not produced by this build, such as the YAML of a renamed
+     * image or the resources of a removed component, from the output directories packaged into the image.
+     */
+    private void pruneOutputs() {
+        for (String directory : new String[]{CELLERY, "ref", RESOURCES}) {
+            Path outputDirectory = Paths.get(OUTPUT_DIRECTORY, directory);
+            try {
+                buildIndex.pruneOutputs(outputDirectory);
+            } catch (IOException e) {
+                throw new BallerinaException("Error occurred while removing stale outputs from " + outputDirectory
+                        + ". " + e.getMessage());
+            }
         }
     }
 
@@ -246,7 +325,7 @@ public class CreateCellImage extends BlockingNativeCallableUnit {
                         "building from Dockerfile");
             }
             tag = image.getOrgName() + "/" + tag;
-            createDockerImage(tag, ((BString) dockerSourceMap.get("dockerDir")).stringValue());
+            dockerBuilds.put(tag, ((BString) dockerSourceMap.get("dockerDir")).stringValue());
             component.setDockerPushRequired(true);
             component.setSource(tag);
         }
@@ -292,7 +371,7 @@ public class CreateCellImage extends BlockingNativeCallableUnit {
         if (attributeMap.containsKey(PROTO_FILE)) {
             String protoFile = ((BString) attributeMap.get(PROTO_FILE)).stringValue();
             if (!protoFile.isEmpty()) {
-                copyResourceToTarget(protoFile);
+                buildIndex.recordOutput(copyResourceToTarget(protoFile));
             }
         }
         component.setContainerPort(destination.getPort());
@@ -450,7 +529,12 @@ public class CreateCellImage extends BlockingNativeCallableUnit {
         return scalingResourceMetric;
     }
 
-    private void generateComposite(Image image) {
+    /**
+     * Generate the Composite YAML of an image in the output directory.
+     *
+     * @param image composite image
+     */
+    void generateComposite(Image image) {
         List<ImageComponent> components =
                 new ArrayList<>(image.getComponentNameToComponentMap().values());
         CompositeSpec compositeSpec = new CompositeSpec();
@@ -464,14 +548,14 @@ public class CreateCellImage extends BlockingNativeCallableUnit {
                 .addToAnnotations(ANNOTATION_CELL_IMAGE_ORG, image.getOrgName())
                 .addToAnnotations(ANNOTATION_CELL_IMAGE_NAME, image.getCellName())
                 .addToAnnotations(ANNOTATION_CELL_IMAGE_VERSION, image.getCellVersion())
-                .addToAnnotations(ANNOTATION_CELL_IMAGE_DEPENDENCIES, new Gson().toJson(image.getDependencies()))
+                .addToAnnotations(ANNOTATION_CELL_IMAGE_DEPENDENCIES, Codec.toJson(image.getDependencies()))
                 .build();
         Composite composite = new Composite(objectMeta, compositeSpec);
         String targetPath =
                 OUTPUT_DIRECTORY + File.separator + CELLERY + File.separator
                         + image.getCellName() + YAML;
         try {
-            writeToFile(toYaml(composite), targetPath);
+            writeYaml(composite, targetPath);
         } catch (IOException e) {
             String errMsg = "Error occurred while writing composite yaml " + targetPath;
             log.error(errMsg, e);
@@ -493,7 +577,13 @@ public class CreateCellImage extends BlockingNativeCallableUnit {
         return componentSpec;
     }
 
-    private void generateCell(Image image) {
+    /**
+     * Generate the Cell YAML of an image in the output directory. This and generateComposite are package-private
+     * for the YAML generation benchmarks, which cannot create the Ballerina context that execute requires.
+     *
+     * @param image cell image
+     */
+    void generateCell(Image image) {
         List<ImageComponent> components = new ArrayList<>(image.getComponentNameToComponentMap().values());
         Ingress ingress = new Ingress();
         Extension extension = new Extension();
@@ -540,13 +630,13 @@ public class CreateCellImage extends BlockingNativeCallableUnit {
                 .addToAnnotations(ANNOTATION_CELL_IMAGE_ORG, image.getOrgName())
                 .addToAnnotations(ANNOTATION_CELL_IMAGE_NAME, image.getCellName())
                 .addToAnnotations(ANNOTATION_CELL_IMAGE_VERSION, image.getCellVersion())
-                .addToAnnotations(ANNOTATION_CELL_IMAGE_DEPENDENCIES, new Gson().toJson(image.getDependencies()))
+                .addToAnnotations(ANNOTATION_CELL_IMAGE_DEPENDENCIES, Codec.toJson(image.getDependencies()))
                 .build();
         Cell cell = new Cell(objectMeta, cellSpec);
         String targetPath =
                 OUTPUT_DIRECTORY + File.separator + CELLERY + File.separator + image.getCellName() + YAML;
         try {
-            writeToFile(toYaml(cell), targetPath);
+            writeYaml(cell, targetPath);
         } catch (IOException e) {
             String errMsg = "Error occurred while writing cell yaml " + targetPath;
             log.error(errMsg, e);
@@ -584,16 +674,19 @@ public class CreateCellImage extends BlockingNativeCallableUnit {
      * Generate a Cell Reference that can be used by other cells.
      */
     private void generateCellReference() {
-        JSONObject json = new JSONObject();
+        JsonObject json = new JsonObject();
         if (image.isCompositeImage()) {
             image.getComponentNameToComponentMap().forEach((name, component) -> {
                 String componentName = getValidName(component.getName());
-                json.put(componentName + "_host", INSTANCE_NAME_PLACEHOLDER + "--" + componentName + "-service");
+                json.addProperty(componentName + "_host",
+                        INSTANCE_NAME_PLACEHOLDER + "--" + componentName + "-service");
                 if (component.getApis().size() > 0) {
-                    json.put(componentName + "_port", DEFAULT_GATEWAY_PORT);
+                    json.addProperty(componentName + "_port", DEFAULT_GATEWAY_PORT);
                 }
-                component.getTcpList().forEach(tcp -> json.put(componentName + "_tcp_port", tcp.getPort()));
-                component.getGrpcList().forEach(grpc -> json.put(componentName + "_grpc_port", grpc.getPort()));
+                component.getTcpList().forEach(tcp ->
+                        json.addProperty(componentName + "_tcp_port", tcp.getPort()));
+                component.getGrpcList().forEach(grpc ->
+                        json.addProperty(componentName + "_grpc_port", grpc.getPort()));
             });
         } else {
             image.getComponentNameToComponentMap().forEach((componentName, component) -> {
@@ -604,19 +697,20 @@ public class CreateCellImage extends BlockingNativeCallableUnit {
                         String url =
                                 DEFAULT_GATEWAY_PROTOCOL + "://" + INSTANCE_NAME_PLACEHOLDER + GATEWAY_SERVICE + ":"
                                         + DEFAULT_GATEWAY_PORT + "/" + context;
-                        json.put(recordName + "_" + getValidRecordName(api.getName()) + "_api_url",
+                        json.addProperty(recordName + "_" + getValidRecordName(api.getName()) + "_api_url",
                                 url.replaceAll("(?<!http:)//", "/"));
                     }
                 });
-                component.getTcpList().forEach(tcp -> json.put(recordName + "_tcp_port", tcp.getPort()));
-                component.getGrpcList().forEach(grpc -> json.put(recordName + "_grpc_port", grpc.getPort()));
+                component.getTcpList().forEach(tcp -> json.addProperty(recordName + "_tcp_port", tcp.getPort()));
+                component.getGrpcList().forEach(grpc ->
+                        json.addProperty(recordName + "_grpc_port", grpc.getPort()));
             });
-            json.put("gateway_host", INSTANCE_NAME_PLACEHOLDER + GATEWAY_SERVICE);
+            json.addProperty("gateway_host", INSTANCE_NAME_PLACEHOLDER + GATEWAY_SERVICE);
         }
         String targetFileNameWithPath =
                 OUTPUT_DIRECTORY + File.separator + "ref" + File.separator + REFERENCE_FILE_NAME;
         try {
-            writeToFile(json.toString(), targetFileNameWithPath);
+            writeToFile(Codec.toJson(json), targetFileNameWithPath);
         } catch (IOException e) {
             String errMsg = "Error occurred while generating reference file " + targetFileNameWithPath;
             log.error(errMsg, e);
@@ -630,30 +724,30 @@ public class CreateCellImage extends BlockingNativeCallableUnit {
      * @param components Components from which data should be extracted for metadata
      */
     private void generateMetadataFile(LinkedHashMap<?, ?> components) {
-        JSONObject jsonObject = new JSONObject();
-        jsonObject.put(KIND, image.isCompositeImage() ? "Composite" : "Cell");
-        jsonObject.put(ORG, image.getOrgName());
-        jsonObject.put(NAME, image.getCellName());
-        jsonObject.put(VERSION, image.getCellVersion());
-        jsonObject.put("zeroScalingRequired", image.isZeroScaling());
-        jsonObject.put("autoScalingRequired", image.isAutoScaling());
-
-        JSONObject componentsJsonObject = new JSONObject();
+        JsonObject jsonObject = new JsonObject();
+        jsonObject.addProperty(KIND, image.isCompositeImage() ? "Composite" : "Cell");
+        jsonObject.addProperty(ORG, image.getOrgName());
+        jsonObject.addProperty(NAME, image.getCellName());
+        jsonObject.addProperty(VERSION, image.getCellVersion());
+        jsonObject.addProperty("zeroScalingRequired", image.isZeroScaling());
+        jsonObject.addProperty("autoScalingRequired", image.isAutoScaling());
+
+        JsonObject componentsJsonObject = new JsonObject();
         components.forEach((key, componentValue) -> {
             LinkedHashMap attributeMap = ((BMap) componentValue).getMap();
             String componentName = ((BString) attributeMap.get("name")).stringValue();
-            JSONObject componentJson = new JSONObject();
+            JsonObject componentJson = new JsonObject();
 
-            JSONObject labelsJsonObject = new JSONObject();
+            JsonObject labelsJsonObject = new JsonObject();
             if (attributeMap.containsKey(LABELS)) {
                 ((BMap<?, ?>) attributeMap.get(LABELS)).getMap().forEach((labelKey, labelValue) ->
-                        labelsJsonObject.put(labelKey.toString(), labelValue.toString()));
+                        labelsJsonObject.addProperty(labelKey.toString(), labelValue.toString()));
             }
-            componentJson.put("labels", labelsJsonObject);
+            componentJson.add("labels", labelsJsonObject);
 
-            JSONObject cellDependenciesJsonObject = new JSONObject();
-            JSONObject compositeDependenciesJsonObject = new JSONObject();
-            JSONArray componentDependenciesJsonArray = new JSONArray();
+            JsonObject cellDependenciesJsonObject = new JsonObject();
+            JsonObject compositeDependenciesJsonObject = new JsonObject();
+            JsonArray componentDependenciesJsonArray = new JsonArray();
             if (attributeMap.containsKey(DEPENDENCIES)) {
                 LinkedHashMap<?, ?> dependencies = ((BMap<?, ?>) attributeMap.get(DEPENDENCIES)).getMap();
                 if (dependencies.containsKey(CELLS)) {
@@ -668,29 +762,29 @@ public class CreateCellImage extends BlockingNativeCallableUnit {
                     BValueArray componentsArray = ((BValueArray) dependencies.get(COMPONENTS));
                     IntStream.range(0, (int) componentsArray.size()).forEach(componentIndex -> {
                         LinkedHashMap component = ((BMap) componentsArray.getBValue(componentIndex)).getMap();
-                        componentDependenciesJsonArray.put(((BString) component.get("name")).stringValue());
+                        componentDependenciesJsonArray.add(((BString) component.get("name")).stringValue());
                     });
                 }
             }
-            JSONObject dependenciesJsonObject = new JSONObject();
-            dependenciesJsonObject.put(CELLS, cellDependenciesJsonObject);
-            dependenciesJsonObject.put(COMPOSITES, compositeDependenciesJsonObject);
-            dependenciesJsonObject.put(COMPONENTS, componentDependenciesJsonArray);
-            componentJson.put("dependencies", dependenciesJsonObject);
+            JsonObject dependenciesJsonObject = new JsonObject();
+            dependenciesJsonObject.add(CELLS, cellDependenciesJsonObject);
+            dependenciesJsonObject.add(COMPOSITES, compositeDependenciesJsonObject);
+            dependenciesJsonObject.add(COMPONENTS, componentDependenciesJsonArray);
+            componentJson.add("dependencies", dependenciesJsonObject);
 
-            componentsJsonObject.put(componentName, componentJson);
+            componentsJsonObject.add(componentName, componentJson);
         });
         image.getComponentNameToComponentMap().forEach((componentName, component) -> {
-            JSONObject componentJsonObject = componentsJsonObject.getJSONObject(componentName);
-            componentJsonObject.put("dockerImage", component.getSource());
-            componentJsonObject.put("isDockerPushRequired", component.isDockerPushRequired());
+            JsonObject componentJsonObject = componentsJsonObject.getAsJsonObject(componentName);
+            componentJsonObject.addProperty("dockerImage", component.getSource());
+            componentJsonObject.addProperty("isDockerPushRequired", component.isDockerPushRequired());
         });
-        jsonObject.put("components", componentsJsonObject);
+        jsonObject.add("components", componentsJsonObject);
 
         String targetFileNameWithPath =
                 OUTPUT_DIRECTORY + File.separator + CELLERY + File.separator + METADATA_FILE_NAME;
         try {
-            writeToFile(jsonObject.toString(), targetFileNameWithPath);
+            writeToFile(Codec.toJson(jsonObject), targetFileNameWithPath);
         } catch (IOException e) {
             String errMsg = "Error occurred while generating metadata file " + targetFileNameWithPath;
             log.error(errMsg, e);
@@ -702,10 +796,10 @@ public class CreateCellImage extends BlockingNativeCallableUnit {
         return name.toLowerCase(Locale.getDefault()).replaceAll("\\P{Alnum}", "");
     }
 
-    private void extractDependencies(JSONObject dependenciesJsonObject, LinkedHashMap<?, ?> cellDependencies,
+    private void extractDependencies(JsonObject dependenciesJsonObject, LinkedHashMap<?, ?> cellDependencies,
                                      String kind) {
         cellDependencies.forEach((alias, dependencyValue) -> {
-            JSONObject dependencyJsonObject = new JSONObject();
+            JsonObject dependencyJsonObject = new JsonObject();
             String org, name, version;
             if (BTYPE_STRING.equals(((BValue) dependencyValue).getType().getName())) {
                 String dependency = ((BString) (dependencyValue)).stringValue();
@@ -726,32 +820,83 @@ public class CreateCellImage extends BlockingNativeCallableUnit {
                 name = ((BString) dependency.get(NAME)).stringValue();
                 version = ((BString) dependency.get(VERSION)).stringValue();
             }
-            dependencyJsonObject.put(ORG, org);
-            dependencyJsonObject.put(NAME, name);
-            dependencyJsonObject.put(VERSION, version);
-            dependencyJsonObject.put("alias", alias.toString());
-            dependencyJsonObject.put(KIND, kind);
+            dependencyJsonObject.addProperty(ORG, org);
+            dependencyJsonObject.addProperty(NAME, name);
+            dependencyJsonObject.addProperty(VERSION, version);
+            dependencyJsonObject.addProperty("alias", alias.toString());
+            dependencyJsonObject.addProperty(KIND, kind);
             image.addDependency(new Dependency(org, name, version, alias.toString(), kind));
-            dependenciesJsonObject.put(alias.toString(), dependencyJsonObject);
+            dependenciesJsonObject.add(alias.toString(), dependencyJsonObject);
+        });
+    }
+
+    /**
+     * Build the Docker Images of the DockerSource components concurrently. Failures are reported in the order of
+     * the components once all the builds have completed.
+     */
+    private void buildDockerImages() {
+        if (dockerBuilds.isEmpty()) {
+            return;
+        }
+        int parallelism = Math.max(1, Math.min(dockerBuilds.size(),
+                getIntEnvironmentVariable(DOCKER_BUILD_PARALLELISM_ENV_VAR, DEFAULT_DOCKER_BUILD_PARALLELISM)));
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "cellery-docker-build-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
         });
+        List<String> errors = new ArrayList<>();
+        try {
+            Map<String, CompletableFuture<Void>> builds = new LinkedHashMap<>();
+            dockerBuilds.forEach((tag, dockerDir) -> builds.put(tag, CompletableFuture.runAsync(() ->
+                    buildDockerImageIfChanged(tag, dockerDir), executor)));
+            builds.forEach((tag, build) -> {
+                try {
+                    build.join();
+                } catch (CompletionException e) {
+                    errors.add(tag + ": " + e.getCause().getMessage());
+                }
+            });
+        } finally {
+            executor.shutdownNow();
+        }
+        if (!errors.isEmpty()) {
+            throw new BallerinaException("Error occurred while building Docker images " + String.join(", ", errors));
+        }
     }
 
     /**
-     * Create a Docker Image from Dockerfile.
+     * Build a Docker Image unless it was built from the same build context by the previous build. The image
+     * recorded for an unchanged build context is reused as long as the tag still points to it, and the tag is moved
+     * back to the recorded image if it was removed or overwritten since.
      *
      * @param dockerImageTag Tag for docker image
      * @param dockerDir      Path to docker Directory
      */
-    private void createDockerImage(String dockerImageTag, String dockerDir) {
-        DockerModel dockerModel = new DockerModel();
-        dockerModel.setName(dockerImageTag);
+    private void buildDockerImageIfChanged(String dockerImageTag, String dockerDir) {
+        String key = "docker:" + dockerImageTag;
+        String contextDigest;
         try {
-            DockerArtifactHandler dockerArtifactHandler = new DockerArtifactHandler(dockerModel);
-            dockerArtifactHandler.buildImage(dockerModel, Paths.get(dockerDir));
-        } catch (DockerGenException | InterruptedException e) {
-            String errMsg = "Error occurred while building Docker image ";
-            log.error(errMsg, e);
-            throw new BallerinaException(errMsg + e.getMessage());
+            contextDigest = DockerBuildContext.digest(Paths.get(dockerDir));
+        } catch (IOException e) {
+            throw new BallerinaException("Error occurred while reading docker directory " + dockerDir + ". " +
+                    e.getMessage());
+        }
+        String imageId = buildIndex.getOutput(key, contextDigest);
+        if (imageId != null) {
+            if (imageId.equals(DockerImageBuilder.getImageId(dockerImageTag))) {
+                printInfo("Docker image " + dockerImageTag + " is up to date (" + imageId + ")");
+                return;
+            }
+            if (DockerImageBuilder.tag(imageId, dockerImageTag)) {
+                printInfo("Docker image " + dockerImageTag + " is re-tagged to " + imageId);
+                return;
+            }
+        }
+        imageId = DockerImageBuilder.build(dockerImageTag, Paths.get(dockerDir));
+        if (imageId != null) {
+            buildIndex.update(key, contextDigest, imageId);
         }
     }
 }
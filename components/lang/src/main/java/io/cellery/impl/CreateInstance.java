@@ -17,9 +17,7 @@
  */
 package io.cellery.impl;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.gson.Gson;
+import com.google.gson.JsonObject;
 import io.cellery.CelleryConstants;
 import io.cellery.CelleryUtils;
 import io.cellery.models.Cell;
@@ -34,7 +32,14 @@ import io.cellery.models.Web;
 import io.cellery.models.internal.Dependency;
 import io.cellery.models.internal.Image;
 import io.cellery.models.internal.ImageComponent;
+import io.cellery.util.Codec;
+import io.cellery.util.DependencyTreeScheduler;
+import io.cellery.util.ExtractedImageCache;
+import io.cellery.util.ImageIndex;
+import io.cellery.util.InstanceRegistry;
+import io.cellery.util.InstanceSnapshot;
 import io.cellery.util.KubernetesClient;
+import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.Probe;
 import io.fabric8.kubernetes.api.model.ResourceRequirements;
 import io.fabric8.kubernetes.api.model.Secret;
@@ -58,7 +63,6 @@ import org.ballerinalang.natives.annotations.Argument;
 import org.ballerinalang.natives.annotations.BallerinaFunction;
 import org.ballerinalang.natives.annotations.ReturnType;
 import org.ballerinalang.util.exceptions.BallerinaException;
-import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -77,8 +81,10 @@ import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.atomic.AtomicLong;
@@ -89,11 +95,18 @@ import static io.cellery.CelleryConstants.CELLERY_ENV_VARIABLE;
 import static io.cellery.CelleryConstants.CELLERY_IMAGE_DIR_ENV_VAR;
 import static io.cellery.CelleryConstants.CENTRAL_REGISTRY_HOST;
 import static io.cellery.CelleryConstants.COMPONENTS;
+import static io.cellery.CelleryConstants.CONDITION_READY;
 import static io.cellery.CelleryConstants.DEBUG_BALLERINA_CONF;
+import static io.cellery.CelleryConstants.DEFAULT_DEPENDENCY_START_PARALLELISM;
+import static io.cellery.CelleryConstants.DEFAULT_NAMESPACE;
+import static io.cellery.CelleryConstants.DEPENDENCY_START_PARALLELISM_ENV_VAR;
 import static io.cellery.CelleryConstants.ENV_VARS;
+import static io.cellery.CelleryConstants.IMAGE_INDEX_FILE_NAME;
 import static io.cellery.CelleryConstants.INGRESSES;
 import static io.cellery.CelleryConstants.INSTANCE_NAME;
 import static io.cellery.CelleryConstants.INSTANCE_NAME_PLACEHOLDER;
+import static io.cellery.CelleryConstants.INSTANCE_READY_TIMEOUT_SECONDS;
+import static io.cellery.CelleryConstants.IN_PROCESS_INSTANCE_START_ENV_VAR;
 import static io.cellery.CelleryConstants.KIND;
 import static io.cellery.CelleryConstants.POD_RESOURCES;
 import static io.cellery.CelleryConstants.PROBES;
@@ -103,6 +116,7 @@ import static io.cellery.CelleryUtils.fileExists;
 import static io.cellery.CelleryUtils.getDependentInstanceName;
 import static io.cellery.CelleryUtils.getFilesByExtension;
 import static io.cellery.CelleryUtils.getInstanceImageName;
+import static io.cellery.CelleryUtils.getIntEnvironmentVariable;
 import static io.cellery.CelleryUtils.isInstanceRunning;
 import static io.cellery.CelleryUtils.printDebug;
 import static io.cellery.CelleryUtils.printInfo;
@@ -113,10 +127,6 @@ import static io.cellery.CelleryUtils.processResources;
 import static io.cellery.CelleryUtils.processWebIngress;
 import static io.cellery.CelleryUtils.randomString;
 import static io.cellery.CelleryUtils.removePrefix;
-import static io.cellery.CelleryUtils.replaceInFile;
-import static io.cellery.CelleryUtils.toYaml;
-import static io.cellery.CelleryUtils.unzip;
-import static io.cellery.CelleryUtils.writeToFile;
 
 /**
  * Native function cellery:createInstance.
@@ -136,20 +146,22 @@ import static io.cellery.CelleryUtils.writeToFile;
 )
 public class CreateInstance extends BlockingNativeCallableUnit {
     private static final Logger log = LoggerFactory.getLogger(CreateInstance.class);
+    private static final ExtractedImageCache IMAGE_CACHE = new ExtractedImageCache();
     private Image image = new Image();
     private String instanceName;
     private Map dependencyInfo = new LinkedHashMap();
-    private static Tree dependencyTree = new Tree();
+    private Tree dependencyTree;
     private BValueArray bValueArray;
     private BMap<String, BValue> bmap;
     private AtomicLong runCount;
-    private Map runningInstances;
+    private InstanceRegistry instanceRegistry;
+    private InstanceSnapshot instanceSnapshot;
     private Map dependencyTreeTable;
     private boolean shareDependencies;
     private boolean isRoot;
 
     public void execute(Context ctx) {
-        runningInstances = new HashMap<String, Node>();
+        instanceRegistry = new InstanceRegistry();
         dependencyTreeTable = new HashMap<String, Node>();
         BArrayType bArrayType =
                 new BArrayType(ctx.getProgramFile().getPackageInfo(CelleryConstants.CELLERY_PACKAGE).getTypeDefInfo(
@@ -197,6 +209,8 @@ public class CreateInstance extends BlockingNativeCallableUnit {
         }
         try {
             if (isRoot) {
+                // Instances in the runtime are listed once and looked up from memory while validating the tree
+                instanceSnapshot = new InstanceSnapshot();
                 generateDependencyTree(destinationPath + File.separator + "metadata.json");
                 // Validate main instance
                 validateMainInstance(instanceName, ((Meta) dependencyTree.getRoot().getData()).getKind());
@@ -221,7 +235,8 @@ public class CreateInstance extends BlockingNativeCallableUnit {
                 bmap = BLangConnectorSPIUtil.createBStruct(ctx,
                         CelleryConstants.CELLERY_PACKAGE,
                         CelleryConstants.INSTANCE_STATE_DEFINITION,
-                        rootCellInfo, isInstanceRunning(rootMeta.getInstanceName(), rootMeta.getKind()));
+                        rootCellInfo, isInstanceRunning(instanceSnapshot, rootMeta.getInstanceName(),
+                                rootMeta.getKind()));
 
                 bValueArray.add(runCount.getAndIncrement(), bmap);
                 dependencyInfo = generateDependencyInfo();
@@ -237,7 +252,7 @@ public class CreateInstance extends BlockingNativeCallableUnit {
                         bmap = BLangConnectorSPIUtil.createBStruct(ctx,
                                 CelleryConstants.CELLERY_PACKAGE,
                                 CelleryConstants.INSTANCE_STATE_DEFINITION,
-                                info, isInstanceRunning(depInstanceName, depKind), alias);
+                                info, isInstanceRunning(instanceSnapshot, depInstanceName, depKind), alias);
                         bValueArray.add(runCount.getAndIncrement(), bmap);
                     });
                     // Start the dependency tree
@@ -264,6 +279,7 @@ public class CreateInstance extends BlockingNativeCallableUnit {
         updateDependencyAnnotations(composite, dependencyInfo);
         try {
             processComponents((BMap) refArgument.getMap().get(COMPONENTS));
+            List<HasMetadata> resources = new ArrayList<>();
             composite.getSpec().getComponents().forEach(component -> {
                 String componentName = component.getMetadata().getName();
                 ImageComponent updatedComponent = this.image.getComponentNameToComponentMap().get(componentName);
@@ -271,22 +287,21 @@ public class CreateInstance extends BlockingNativeCallableUnit {
                 updateEnvVar(instanceName, component, updatedComponent, dependencyInfo);
                 // Update Gateway Config
                 if (composite instanceof Cell) {
-                    updateGatewayConfig(instanceName, destinationPath, (Cell) composite, updatedComponent);
+                    updateGatewayConfig(instanceName, (Cell) composite, updatedComponent, resources);
                 }
                 // Update liveness and readiness probe
                 updateProbes(component, updatedComponent);
                 // Update resource limit and requests
                 updateResources(component, updatedComponent);
             });
-            writeToFile(toYaml(composite), cellYAMLPath);
-            // Update cell yaml with instance name
-            replaceInFile(cellYAMLPath, "  name: \"" + cellName + "\"\n", "  name: \"" + instanceName + "\"\n");
-            // Apply yaml file of the instance
-            KubernetesClient.apply(cellYAMLPath);
-            KubernetesClient.waitFor("Ready", 30 * 60, instanceArg, "default");
+            // Name the instance and apply it along with the resources it refers to in a single pass
+            composite.getMetadata().setName(instanceName);
+            resources.add(composite);
+            KubernetesClient.applyAll(resources);
+            KubernetesClient.waitFor(CONDITION_READY, INSTANCE_READY_TIMEOUT_SECONDS, instanceArg, DEFAULT_NAMESPACE);
             ctx.setReturnValues(bValueArray);
-        } catch (IOException | BallerinaException e) {
-            String error = "Unable to persist updated composite yaml " + destinationPath;
+        } catch (BallerinaException e) {
+            String error = "Unable to create instance " + instanceName;
             log.error(error, e);
             ctx.setReturnValues(BLangVMErrors.createError(ctx, error + ". " + e.getMessage()));
         } catch (Exception e) {
@@ -300,16 +315,16 @@ public class CreateInstance extends BlockingNativeCallableUnit {
      * Update Gateway Config.
      *
      * @param instanceName     instance Name
-     * @param destinationPath  destination file path
      * @param cell             Cell object
      * @param updatedComponent Updated component object
+     * @param resources        resources to be applied along with the instance
      */
-    private void updateGatewayConfig(String instanceName, String destinationPath, Cell cell,
-                                     ImageComponent updatedComponent) {
+    private void updateGatewayConfig(String instanceName, Cell cell, ImageComponent updatedComponent,
+                                     List<HasMetadata> resources) {
         GatewaySpec gatewaySpec = cell.getSpec().getGateway().getSpec();
         Web web = updatedComponent.getWeb();
         if (web != null) {
-            // Create TLS secret yaml and set the name
+            // Create TLS secret and set the name
             if (StringUtils.isNoneEmpty(web.getTlsKey())) {
                 Map<String, String> tlsMap = new HashMap<>();
                 tlsMap.put("tls.key",
@@ -317,7 +332,7 @@ public class CreateInstance extends BlockingNativeCallableUnit {
                 tlsMap.put("tls.crt",
                         Base64.encodeBase64String(web.getTlsCert().getBytes(StandardCharsets.UTF_8)));
                 String tlsSecretName = instanceName + "--tls-secret";
-                createSecret(tlsSecretName, tlsMap, destinationPath + File.separator + tlsSecretName + ".yaml");
+                resources.add(createSecret(tlsSecretName, tlsMap));
                 gatewaySpec.getIngress().getExtensions().getClusterIngress().getTls().setSecret(tlsSecretName);
             }
             // Set OIDC values
@@ -432,15 +447,14 @@ public class CreateInstance extends BlockingNativeCallableUnit {
      * @param dependencyInfo dependency alias information map
      */
     private void updateDependencyAnnotations(Composite composite, Map dependencyInfo) {
-        Gson gson = new Gson();
-        Dependency[] dependencies = gson.fromJson(composite.getMetadata().getAnnotations()
+        Dependency[] dependencies = Codec.fromJson(composite.getMetadata().getAnnotations()
                 .get(ANNOTATION_CELL_IMAGE_DEPENDENCIES), Dependency[].class);
         Arrays.stream(dependencies).forEach(dependency -> {
             dependency.setInstance(((BString) ((BMap) dependencyInfo.get(dependency.getAlias())).getMap().get(
                     INSTANCE_NAME)).stringValue());
             dependency.setAlias(null);
         });
-        composite.getMetadata().getAnnotations().put(ANNOTATION_CELL_IMAGE_DEPENDENCIES, gson.toJson(dependencies));
+        composite.getMetadata().getAnnotations().put(ANNOTATION_CELL_IMAGE_DEPENDENCIES, Codec.toJson(dependencies));
     }
 
     /**
@@ -489,24 +503,19 @@ public class CreateInstance extends BlockingNativeCallableUnit {
     }
 
     /**
-     * Create a secret file.
+     * Create a secret.
      *
-     * @param instanceName    Cell Instance Name
-     * @param data            secret data
-     * @param destinationPath path to save the secret yaml
+     * @param instanceName Cell Instance Name
+     * @param data         secret data
+     * @return secret
      */
-    private void createSecret(String instanceName, Map<String, String> data, String destinationPath) {
-        Secret secret = new SecretBuilder()
+    private Secret createSecret(String instanceName, Map<String, String> data) {
+        return new SecretBuilder()
                 .withNewMetadata()
                 .withName(instanceName)
                 .endMetadata()
                 .withData(data)
                 .build();
-        try {
-            writeToFile(toYaml(secret), destinationPath);
-        } catch (IOException e) {
-            throw new BallerinaException("Error while generating secrets for instance " + instanceName);
-        }
     }
 
     /**
@@ -515,9 +524,18 @@ public class CreateInstance extends BlockingNativeCallableUnit {
      * @return map of dependency info
      */
     private Map generateDependencyInfo() {
+        return generateDependencyInfo((Meta) dependencyTree.getRoot().getData());
+    }
+
+    /**
+     * Generate cell dependency information of a cell instance.
+     *
+     * @param meta metadata of the cell instance
+     * @return map of dependency info
+     */
+    private Map generateDependencyInfo(Meta meta) {
         BMap<String, BValue> dependencyInfoMap = new BMap<>(new BMapType(new BArrayType(BTypes.typeString)));
-        for (Map.Entry<String, Meta> dependentCell :
-                ((Meta) dependencyTree.getRoot().getData()).getDependencies().entrySet()) {
+        for (Map.Entry<String, Meta> dependentCell : meta.getDependencies().entrySet()) {
             BMap<String, BValue> dependentCellMap = new BMap<>(new BArrayType(BTypes.typeString));
             dependentCellMap.put("org", new BString(dependentCell.getValue().getOrg()));
             dependentCellMap.put("name", new BString(dependentCell.getValue().getName()));
@@ -530,22 +548,23 @@ public class CreateInstance extends BlockingNativeCallableUnit {
     }
 
     /**
-     * Generate dependency tree.
+     * Generate dependency tree. Package-private so that the dependency tree benchmark can build the tree of an
+     * extracted image without starting instances.
      *
      * @param metadataJsonPath path to the metadata.json of the cell
      * @throws IOException if dependency tree generation fails
      */
-    private void generateDependencyTree(String metadataJsonPath) throws IOException {
-        //read json file data to String
-        byte[] jsonData = Files.readAllBytes(Paths.get(metadataJsonPath));
-        //create ObjectMapper instance
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
-        //convert json string to object
-        Meta rootMeta = objectMapper.readValue(jsonData, Meta.class);
+    void generateDependencyTree(String metadataJsonPath) throws IOException {
+        Path metadataPath = Paths.get(metadataJsonPath);
+        // The binary index written alongside the metadata is preferred as it is cheaper to decode
+        Meta rootMeta = ImageIndex.readMetadata(metadataPath.resolveSibling(IMAGE_INDEX_FILE_NAME), metadataPath);
+        if (rootMeta == null) {
+            rootMeta = Codec.readJson(metadataPath, Meta.class);
+        }
         Node<Meta> rootNode = new Node<>(rootMeta);
         rootMeta.setInstanceName(instanceName);
         // Set as root node
+        dependencyTree = new Tree();
         dependencyTree.setRoot(rootNode);
         // Generating dependency tree
         buildDependencyTree(rootNode);
@@ -616,51 +635,108 @@ public class CreateInstance extends BlockingNativeCallableUnit {
      */
     private void startInstance(String org, String name, String version, String cellInstanceName, String dependentCells,
                                boolean shareDependencies, Map<String, String> environmentVariables) throws IOException {
+        try (ExtractedImageCache.Lease lease = extractImage(org, name, version, false)) {
+            Path tempBalFileDir = lease.getPath();
+            String tempBalFile = getFilesByExtension(tempBalFileDir + File.separator + "src", "bal").
+                    get(0).toString();
+            String ballerinaMain = "public function main(string action, cellery:ImageName iName, " +
+                    "map<cellery:ImageName> instances, boolean startDependencies, boolean shareDependencies) " +
+                    "returns error? {\n" +
+                    "\tcellery:InstanceState[]|error? result = run(iName, instances, startDependencies, " +
+                    "shareDependencies);\n" +
+                    "\tif (result is error?) {\n" +
+                    "\t\treturn result;\n" +
+                    "\t}\n" +
+                    "}";
+            appendToFile(ballerinaMain, tempBalFile);
+            // Create a cell image json object
+            JsonObject image = new JsonObject();
+            image.addProperty("org", org);
+            image.addProperty("name", name);
+            image.addProperty("ver", version);
+            image.addProperty("instanceName", cellInstanceName);
+            Map<String, String> environment = new HashMap<>();
+            environment.put(CELLERY_IMAGE_DIR_ENV_VAR, tempBalFileDir.toString());
+            String shareDependenciesFlag = "false";
+            if (shareDependencies) {
+                shareDependenciesFlag = "true";
+            }
+            for (Map.Entry<String, String> environmentVariable : environmentVariables.entrySet()) {
+                environment.put(environmentVariable.getKey(), environmentVariable.getValue());
+            }
+            Path workingDir = Paths.get(System.getProperty("user.dir"));
+            if (Files.exists(workingDir.resolve(CelleryConstants.BALLERINA_TOML))) {
+                createTempDirForDependency(tempBalFile, System.getProperty("user.dir"), cellInstanceName);
+                CelleryUtils.executeShellCommand(null, CelleryUtils::printInfo, CelleryUtils::printInfo,
+                        environment, "ballerina", "run", cellInstanceName, "run", Codec.toJson(image), dependentCells,
+                        "false", shareDependenciesFlag);
+            } else {
+                CelleryUtils.executeShellCommand(null, CelleryUtils::printInfo, CelleryUtils::printInfo,
+                        environment, "ballerina", "run", tempBalFile, "run", Codec.toJson(image), dependentCells,
+                        "false", shareDependenciesFlag);
+            }
+        }
+    }
+
+    /**
+     * Start a cell instance without running the Ballerina source of the cell image. The artifacts of the image are
+     * applied as they are after updating the instance name, environment variables and dependency instance names.
+     *
+     * @param meta metadata of the instance
+     * @throws IOException if the instance start fails
+     */
+    private void startInstanceInProcess(Meta meta) throws IOException {
+        String cellInstanceName = meta.getInstanceName();
+        printInfo("starting instance " + cellInstanceName);
+        // The image is only read, so the cached image is used without a working copy
+        try (ExtractedImageCache.Lease lease = extractImage(meta.getOrg(), meta.getName(), meta.getVer(), true)) {
+            Path imageDir = lease.getPath();
+            String destinationPath = imageDir + File.separator + "artifacts" + File.separator + "cellery";
+            String cellYAMLPath = destinationPath + File.separator + meta.getName() + YAML;
+            Composite composite;
+            String instanceArg;
+            if (CELL.equals(meta.getKind())) {
+                instanceArg = "cells.mesh.cellery.io/" + cellInstanceName;
+                composite = CelleryUtils.readCellYaml(cellYAMLPath);
+            } else {
+                instanceArg = "composites.mesh.cellery.io/" + cellInstanceName;
+                composite = CelleryUtils.readCompositeYaml(cellYAMLPath);
+            }
+            Map instanceDependencyInfo = generateDependencyInfo(meta);
+            updateDependencyAnnotations(composite, instanceDependencyInfo);
+            composite.getSpec().getComponents().forEach(component -> {
+                // Environment variables given to the instance override the values defined in the image
+                ImageComponent updatedComponent = new ImageComponent();
+                updatedComponent.setName(component.getMetadata().getName());
+                updatedComponent.setEnvVars(meta.getEnvironmentVariables());
+                updateEnvVar(cellInstanceName, component, updatedComponent, instanceDependencyInfo);
+            });
+            composite.getMetadata().setName(cellInstanceName);
+            // Applied with a server-side apply patch like the instances started by running the image
+            KubernetesClient.applyAll(Collections.singletonList(composite));
+            KubernetesClient.waitFor(CONDITION_READY, INSTANCE_READY_TIMEOUT_SECONDS, instanceArg, DEFAULT_NAMESPACE);
+        }
+    }
+
+    /**
+     * Extract a cell image from the local repository, pulling it first if it is not available locally.
+     *
+     * @param org      organization
+     * @param name     cell name
+     * @param version  cell version
+     * @param readOnly whether the extracted cell image is only read
+     * @return lease of the extracted cell image, which is a working copy unless the image is only read
+     * @throws IOException if the cell image extraction fails
+     */
+    private ExtractedImageCache.Lease extractImage(String org, String name, String version, boolean readOnly)
+            throws IOException {
         Path imageDir = Paths.get(System.getProperty("user.home"), ".cellery", "repo", org, name, version,
                 name + ".zip");
         if (!fileExists(imageDir.toString())) {
             pullImage(CENTRAL_REGISTRY_HOST, org, name, version);
         }
-        Path tempDir = Paths.get(System.getProperty("user.home"), ".cellery", "tmp");
-        Path tempBalFileDir = Files.createTempDirectory(Paths.get(tempDir.toString()), "cellery-cell-image");
-        unzip(imageDir.toString(), tempBalFileDir.toString());
-        String tempBalFile = getFilesByExtension(tempBalFileDir + File.separator + "src", "bal").
-                get(0).toString();
-        String ballerinaMain = "public function main(string action, cellery:ImageName iName, map<cellery:ImageName> " +
-                "instances, boolean startDependencies, boolean shareDependencies) returns error? {\n" +
-                "\tcellery:InstanceState[]|error? result = run(iName, instances, startDependencies, " +
-                "shareDependencies);\n" +
-                "\tif (result is error?) {\n" +
-                "\t\treturn result;\n" +
-                "\t}\n" +
-                "}";
-        appendToFile(ballerinaMain, tempBalFile);
-        // Create a cell image json object
-        JSONObject image = new JSONObject();
-        image.put("org", org);
-        image.put("name", name);
-        image.put("ver", version);
-        image.put("instanceName", cellInstanceName);
-        Map<String, String> environment = new HashMap<>();
-        environment.put(CELLERY_IMAGE_DIR_ENV_VAR, tempBalFileDir.toString());
-        String shareDependenciesFlag = "false";
-        if (shareDependencies) {
-            shareDependenciesFlag = "true";
-        }
-        for (Map.Entry<String, String> environmentVariable : environmentVariables.entrySet()) {
-            environment.put(environmentVariable.getKey(), environmentVariable.getValue());
-        }
-        Path workingDir = Paths.get(System.getProperty("user.dir"));
-        if (Files.exists(workingDir.resolve(CelleryConstants.BALLERINA_TOML))) {
-            createTempDirForDependency(tempBalFile, System.getProperty("user.dir"), cellInstanceName);
-            CelleryUtils.executeShellCommand(null, CelleryUtils::printInfo, CelleryUtils::printInfo,
-                    environment, "ballerina", "run", cellInstanceName, "run", image.toString(), dependentCells,
-                    "false", shareDependenciesFlag);
-        } else {
-            CelleryUtils.executeShellCommand(null, CelleryUtils::printInfo, CelleryUtils::printInfo,
-                    environment, "ballerina", "run", tempBalFile, "run", image.toString(), dependentCells,
-                    "false", shareDependenciesFlag);
-        }
+        return readOnly ? IMAGE_CACHE.acquireReadOnly(org, name, version, imageDir)
+                : IMAGE_CACHE.acquire(org, name, version, imageDir);
     }
 
     private void createTempDirForDependency(String tempBalFile, String workingDir, String instanceName)
@@ -671,43 +747,66 @@ public class CreateInstance extends BlockingNativeCallableUnit {
     }
 
     /**
-     * Start the dependency tree.
+     * Start the dependency tree. Each instance is started once all of its dependencies are started and independent
+     * instances are started concurrently.
+     *
+     * @param root root node of the dependency tree
+     * @throws IOException if dependency tree start fails
+     */
+    private void startDependencyTree(Node<Meta> root) throws IOException {
+        new DependencyTreeScheduler<Meta>(getIntEnvironmentVariable(DEPENDENCY_START_PARALLELISM_ENV_VAR,
+                DEFAULT_DEPENDENCY_START_PARALLELISM), this::startDependency).start(root);
+    }
+
+    /**
+     * Start the instance of a dependency tree node.
      *
-     * @param node node which will be used to initiate the starting of the dependency tree
-     * @throws Exception if dependency tree start fails
+     * @param node node of which the instance should be started
+     * @throws IOException if the instance start fails
      */
-    private void startDependencyTree(Node<Meta> node) throws IOException {
+    private void startDependency(Node<Meta> node) throws IOException {
         Meta meta = node.getData();
-        for (Node<Meta> childNode : node.getChildren()) {
-            startDependencyTree(childNode);
-        }
-        // Once all dependent cells are started or there are no dependent cells, start the current instance
+        // All dependent cells are started or there are no dependent cells, start the current instance
         String cellMetaInstanceName = meta.getInstanceName();
         String cellImageName = meta.getOrg() + "/" + meta.getName() + ":" + meta.getVer();
         // Start the cell instance if not already running
         // This will not start root instance
-        if (!dependencyTree.getRoot().equals(node) && !node.getData().isRunning()) {
-            if (shareDependencies && runningInstances.containsKey(cellImageName)) {
-                // If a shared instance is running with the same cell image name (org/name:version) change the
-                // instance name of the current cell to that cell's instance name
-                node.getData().setInstanceName(((Meta) ((Node) runningInstances.
-                        get(cellImageName)).getData()).getInstanceName());
-            } else {
-                JSONObject dependentCellsMap = new JSONObject();
-                for (Map.Entry<String, Meta> dependentCell : meta.getDependencies().entrySet()) {
-                    // Create a dependent cell image json object
-                    JSONObject dependentCellImage = new JSONObject();
-                    dependentCellImage.put("org", dependentCell.getValue().getOrg());
-                    dependentCellImage.put("name", dependentCell.getValue().getName());
-                    dependentCellImage.put("ver", dependentCell.getValue().getVer());
-                    dependentCellImage.put("instanceName", dependentCell.getValue().getInstanceName());
-                    dependentCellsMap.put(dependentCell.getKey(), dependentCellImage);
-                }
-                startInstance(meta.getOrg(), meta.getName(), meta.getVer(), cellMetaInstanceName,
-                        dependentCellsMap.toString(), shareDependencies, meta.getEnvironmentVariables());
-                runningInstances.put(cellImageName, node);
-            }
+        if (dependencyTree.getRoot().equals(node) || node.getData().isRunning()) {
+            return;
+        }
+        if (shareDependencies) {
+            // Dependents of the same cell image (org/name:version) share a single instance, which is started by the
+            // first of them while the rest wait for it and use its instance name
+            meta.setInstanceName(instanceRegistry.startOnce(cellImageName, cellMetaInstanceName,
+                    () -> startDependencyInstance(meta)));
+        } else {
+            startDependencyInstance(meta);
+        }
+    }
+
+    /**
+     * Start the instance of a dependency.
+     *
+     * @param meta metadata of the dependency
+     * @throws IOException if the instance start fails
+     */
+    private void startDependencyInstance(Meta meta) throws IOException {
+        if (Boolean.parseBoolean(System.getenv(IN_PROCESS_INSTANCE_START_ENV_VAR))) {
+            startInstanceInProcess(meta);
+            return;
+        }
+        JsonObject dependentCellsMap = new JsonObject();
+        for (Map.Entry<String, Meta> dependentCell : meta.getDependencies().entrySet()) {
+            // Create a dependent cell image json object
+            JsonObject dependentCellImage = new JsonObject();
+            dependentCellImage.addProperty("org", dependentCell.getValue().getOrg());
+            dependentCellImage.addProperty("name", dependentCell.getValue().getName());
+            dependentCellImage.addProperty("ver", dependentCell.getValue().getVer());
+            dependentCellImage.addProperty("instanceName", dependentCell.getValue().getInstanceName());
+            dependentCellsMap.add(dependentCell.getKey(), dependentCellImage);
         }
+        startInstance(meta.getOrg(), meta.getName(), meta.getVer(), meta.getInstanceName(),
+                Codec.toJson(dependentCellsMap), shareDependencies, meta.getEnvironmentVariables());
     }
 
     /**
@@ -723,10 +822,10 @@ public class CreateInstance extends BlockingNativeCallableUnit {
             // Even if the user has not given link to this instance, if the link of parent instance is given and it
             // is running that means the child instance is also running. Therefore get the child instance name using
             // the parent instance.
-            node.getData().setInstanceName(getDependentInstanceName(node.getParent().getData().getInstanceName(),
-                    node.getData().getOrg(), node.getData().getName(), node.getData().getVer(), node.getData().
-                            getKind()));
-            if (isInstanceRunning(node.getData().getInstanceName(), node.getData().getKind())) {
+            node.getData().setInstanceName(getDependentInstanceName(instanceSnapshot,
+                    node.getParent().getData().getInstanceName(), node.getData().getOrg(), node.getData().getName(),
+                    node.getData().getVer(), node.getData().getKind()));
+            if (isInstanceRunning(instanceSnapshot, node.getData().getInstanceName(), node.getData().getKind())) {
                 node.getData().setRunning(true);
             }
         } else if (dependencyLinks.containsKey(node.getData().getAlias())) {
@@ -736,12 +835,13 @@ public class CreateInstance extends BlockingNativeCallableUnit {
                     get(INSTANCE_NAME))).stringValue();
             String kind = node.getData().getKind();
             node.getData().setInstanceName(instanceName);
-            if (isInstanceRunning(instanceName, kind)) {
-                if (!getInstanceImageName(instanceName, node.getData().getKind()).equals(node.getData().getOrg() +
-                        File.separator + node.getData().getName() + ":" + node.getData().getVer())) {
+            if (isInstanceRunning(instanceSnapshot, instanceName, kind)) {
+                if (!getInstanceImageName(instanceSnapshot, instanceName, node.getData().getKind()).equals(
+                        node.getData().getOrg() + File.separator + node.getData().getName() + ":" +
+                                node.getData().getVer())) {
                     String errMsg = "Cell dependency validation failed. There already exists a cell instance with " +
                             "the instance name " + instanceName + "and cell image name " +
-                            getInstanceImageName(instanceName, node.getData().getKind());
+                            getInstanceImageName(instanceSnapshot, instanceName, node.getData().getKind());
                     throw new BallerinaException(errMsg);
                 }
                 node.getData().setRunning(true);
@@ -905,7 +1005,7 @@ public class CreateInstance extends BlockingNativeCallableUnit {
      * @param instanceName cell instance name
      */
     private void validateMainInstance(String instanceName, String kind) {
-        if (isInstanceRunning(instanceName, kind)) {
+        if (isInstanceRunning(instanceSnapshot, instanceName, kind)) {
             String errMsg = "instance to be created should not be present in the runtime, instance " + instanceName +
                     " is already available in the runtime";
             throw new BallerinaException(errMsg);
@@ -17,8 +17,10 @@
  */
 package io.cellery.impl;
 
+import com.google.gson.JsonObject;
 import io.cellery.CelleryConstants;
-import org.apache.commons.io.IOUtils;
+import io.cellery.util.Codec;
+import io.cellery.util.ImageIndex;
 import org.ballerinalang.bre.Context;
 import org.ballerinalang.bre.bvm.BLangVMErrors;
 import org.ballerinalang.bre.bvm.BlockingNativeCallableUnit;
@@ -30,18 +32,22 @@ import org.ballerinalang.model.values.BValue;
 import org.ballerinalang.natives.annotations.Argument;
 import org.ballerinalang.natives.annotations.BallerinaFunction;
 import org.ballerinalang.natives.annotations.ReturnType;
-import org.json.JSONObject;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
-import java.util.Enumeration;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
 import static io.cellery.CelleryConstants.CELLERY_REPO_PATH;
+import static io.cellery.CelleryConstants.IMAGE_INDEX_FILE_NAME;
 import static io.cellery.CelleryConstants.INSTANCE_NAME_PLACEHOLDER;
 import static io.cellery.CelleryConstants.REFERENCE_FILE_NAME;
 
@@ -57,6 +63,9 @@ import static io.cellery.CelleryConstants.REFERENCE_FILE_NAME;
         isPublic = true
 )
 public class ReadReference extends BlockingNativeCallableUnit {
+    private static final String REFERENCE_ENTRY = "artifacts/ref/" + REFERENCE_FILE_NAME;
+    private static final String INDEX_ENTRY = "artifacts/cellery/" + IMAGE_INDEX_FILE_NAME;
+    private static final Map<String, CachedReference> REFERENCES = new ConcurrentHashMap<>();
 
     public void execute(Context ctx) {
         LinkedHashMap nameStruct = ((BMap) ctx.getNullableRefArgument(0)).getMap();
@@ -66,10 +75,10 @@ public class ReadReference extends BlockingNativeCallableUnit {
         String instanceName = ((BString) nameStruct.get("instanceName")).stringValue();
         String zipFilePath = CELLERY_REPO_PATH + File.separator + orgName + File.separator + cellName + File.separator
                 + cellVersion + File.separator + cellName + ".zip";
-        JSONObject jsonObject;
+        Map<String, String> reference;
         try {
-            jsonObject = readReferenceJSON(zipFilePath);
-            if (jsonObject == null || jsonObject.isEmpty()) {
+            reference = readReference(zipFilePath);
+            if (reference.isEmpty()) {
                 ctx.setError(BLangVMErrors.createError(ctx, "Reference file is empty. " + zipFilePath));
                 return;
             }
@@ -79,25 +88,87 @@ public class ReadReference extends BlockingNativeCallableUnit {
         }
         BMap<String, BValue> refMap = BLangConnectorSPIUtil.createBStruct(ctx, CelleryConstants.CELLERY_PACKAGE,
                 CelleryConstants.REFERENCE_DEFINITION);
-        jsonObject.keys().forEachRemaining(key -> refMap.put(key,
-                new BString(jsonObject.get(key).toString().replace(INSTANCE_NAME_PLACEHOLDER,
-                        "{{" + instanceName + "}}"))));
+        reference.forEach((key, value) -> refMap.put(key,
+                new BString(value.replace(INSTANCE_NAME_PLACEHOLDER, "{{" + instanceName + "}}"))));
         ctx.setReturnValues(refMap);
     }
 
-    private JSONObject readReferenceJSON(String zipFilePath) throws IOException {
+    /**
+     * Read the reference of a cell image. References are cached until the image zip is modified. Package-private
+     * so that cached and stale lookups can be benchmarked without a Ballerina context.
+     *
+     * @param zipFilePath path to the cell image zip
+     * @return reference of the cell image, empty if the image does not have a reference
+     * @throws IOException if reading the image zip fails
+     */
+    static Map<String, String> readReference(String zipFilePath) throws IOException {
+        long lastModified = new File(zipFilePath).lastModified();
+        CachedReference cachedReference = REFERENCES.get(zipFilePath);
+        if (cachedReference != null && cachedReference.lastModified == lastModified) {
+            return cachedReference.reference;
+        }
+        Map<String, String> reference;
         try (ZipFile zipFile = new ZipFile(zipFilePath)) {
-            Enumeration<? extends ZipEntry> entries = zipFile.entries();
-            String fileName = "artifacts" + File.separator + "ref" + File.separator + REFERENCE_FILE_NAME;
-            while (entries.hasMoreElements()) {
-                ZipEntry entry = entries.nextElement();
-                if (entry.getName().matches(fileName)) {
-                    try (InputStream stream = zipFile.getInputStream(entry)) {
-                        return new JSONObject(IOUtils.toString(stream, StandardCharsets.UTF_8));
-                    }
-                }
+            ZipEntry referenceEntry = getEntry(zipFile, REFERENCE_ENTRY);
+            // The binary index of the image is preferred as it is cheaper to decode
+            reference = readIndexedReference(zipFile, referenceEntry);
+            if (reference == null) {
+                reference = readReferenceJSON(zipFile, referenceEntry);
             }
         }
-        return null;
+        cachedReference = new CachedReference(lastModified, Collections.unmodifiableMap(reference));
+        REFERENCES.put(zipFilePath, cachedReference);
+        return cachedReference.reference;
+    }
+
+    private static Map<String, String> readIndexedReference(ZipFile zipFile, ZipEntry referenceEntry)
+            throws IOException {
+        ZipEntry indexEntry = getEntry(zipFile, INDEX_ENTRY);
+        if (indexEntry == null) {
+            return null;
+        }
+        try (InputStream inputStream = zipFile.getInputStream(indexEntry)) {
+            return ImageIndex.readReference(inputStream, zipFile, referenceEntry);
+        }
+    }
+
+    private static Map<String, String> readReferenceJSON(ZipFile zipFile, ZipEntry referenceEntry)
+            throws IOException {
+        Map<String, String> reference = new LinkedHashMap<>();
+        if (referenceEntry == null) {
+            return reference;
+        }
+        JsonObject jsonObject;
+        try (Reader reader = new InputStreamReader(zipFile.getInputStream(referenceEntry),
+                StandardCharsets.UTF_8)) {
+            jsonObject = Codec.fromJson(reader, JsonObject.class);
+        }
+        if (jsonObject != null) {
+            jsonObject.entrySet().forEach(entry -> reference.put(entry.getKey(), entry.getValue().isJsonPrimitive()
+                    ? entry.getValue().getAsString() : entry.getValue().toString()));
+        }
+        return reference;
+    }
+
+    private static ZipEntry getEntry(ZipFile zipFile, String name) {
+        // Look up the entry from the central directory instead of iterating through all the entries
+        ZipEntry entry = zipFile.getEntry(name);
+        if (entry == null) {
+            entry = zipFile.getEntry(name.replace("/", File.separator));
+        }
+        return entry;
+    }
+
+    /**
+     * Reference of a cell image along with the modified time of the image zip it was read from.
+     */
+    private static class CachedReference {
+        private final long lastModified;
+        private final Map<String, String> reference;
+
+        private CachedReference(long lastModified, Map<String, String> reference) {
+            this.lastModified = lastModified;
+            this.reference = reference;
+        }
     }
 }
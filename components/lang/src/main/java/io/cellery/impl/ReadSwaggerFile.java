@@ -18,8 +18,9 @@
 package io.cellery.impl;
 
 import io.cellery.CelleryConstants;
-import io.swagger.models.Swagger;
-import io.swagger.parser.SwaggerParser;
+import io.cellery.models.APIDefinition;
+import io.cellery.util.ApiDefinitionReader;
+import io.cellery.util.BuildIndex;
 import org.ballerinalang.bre.Context;
 import org.ballerinalang.bre.bvm.BLangVMErrors;
 import org.ballerinalang.bre.bvm.BlockingNativeCallableUnit;
@@ -32,13 +33,14 @@ import org.ballerinalang.model.values.BValueArray;
 import org.ballerinalang.natives.annotations.Argument;
 import org.ballerinalang.natives.annotations.BallerinaFunction;
 import org.ballerinalang.natives.annotations.ReturnType;
+import org.ballerinalang.util.exceptions.BallerinaException;
 
 import java.io.IOException;
-import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static io.cellery.CelleryUtils.copyResourceToTarget;
-import static io.cellery.CelleryUtils.readSwaggerFile;
 
 /**
  * Class to Parse Swagger.
@@ -58,31 +60,24 @@ public class ReadSwaggerFile extends BlockingNativeCallableUnit {
                         CelleryConstants.RESOURCE_DEFINITION).typeInfo.getType());
         BValueArray bValueArray = new BValueArray(bArrayType);
         String swaggerFilePath = ctx.getNullableStringArgument(0);
-        final String specification;
+        final List<APIDefinition> resources;
         try {
-            specification = readSwaggerFile(swaggerFilePath, Charset.defaultCharset());
-            copyResourceToTarget(swaggerFilePath);
-        } catch (IOException e) {
+            resources = ApiDefinitionReader.read(Paths.get(swaggerFilePath));
+            // The build index is created later by the createImage native
+            BuildIndex.recordPendingOutput(copyResourceToTarget(swaggerFilePath));
+        } catch (IOException | BallerinaException e) {
             ctx.setReturnValues(BLangVMErrors.createError(ctx, "Error occurred while reading swagger file: "
                     + swaggerFilePath));
             return;
         }
-        final Swagger swagger = new SwaggerParser().parse(specification);
-        String basePath = swagger.getBasePath();
-        if (basePath.isEmpty() || "/".equals(basePath)) {
-            basePath = "";
-        }
         AtomicLong runCount = new AtomicLong(0L);
-        String finalBasePath = basePath;
-        swagger.getPaths().forEach((path, pathDefinition) ->
-                pathDefinition.getOperationMap().forEach((httpMethod, operation) -> {
-                    BMap<String, BValue> bmap = BLangConnectorSPIUtil.createBStruct(ctx,
-                            CelleryConstants.CELLERY_PACKAGE,
-                            CelleryConstants.RESOURCE_DEFINITION,
-                            finalBasePath + path, httpMethod.toString());
-                    bValueArray.add(runCount.getAndIncrement(), bmap);
-
-                }));
+        resources.forEach(resource -> {
+            BMap<String, BValue> bmap = BLangConnectorSPIUtil.createBStruct(ctx,
+                    CelleryConstants.CELLERY_PACKAGE,
+                    CelleryConstants.RESOURCE_DEFINITION,
+                    resource.getPath(), resource.getMethod());
+            bValueArray.add(runCount.getAndIncrement(), bmap);
+        });
         ctx.setReturnValues(BLangConnectorSPIUtil.createBStruct(ctx, CelleryConstants.CELLERY_PACKAGE,
                 CelleryConstants.API_DEFINITION, bValueArray));
     }
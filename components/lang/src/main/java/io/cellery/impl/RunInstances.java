@@ -74,7 +74,7 @@ public class RunInstances extends BlockingNativeCallableUnit {
             image.setCellVersion(depNameStruct.get(VERSION).toString());
             instances.put(depAlias, image);
         }
-        String output = CelleryUtils.executeShellCommand("kubectl get cells", null, CelleryUtils::printDebug,
+        String output = CelleryUtils.readShellCommandOutput("kubectl get cells", null, CelleryUtils::printDebug,
                 CelleryUtils::printDebug);
         StringBuilder runCommand;
         String imageName = nameStruct.get(ORG).toString() + "/" + nameStruct.get(NAME)
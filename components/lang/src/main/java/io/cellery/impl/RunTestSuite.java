@@ -48,28 +48,42 @@ import org.ballerinalang.util.exceptions.BallerinaException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static io.cellery.CelleryConstants.ANNOTATION_CELL_IMAGE_NAME;
 import static io.cellery.CelleryConstants.ANNOTATION_CELL_IMAGE_ORG;
 import static io.cellery.CelleryConstants.ANNOTATION_CELL_IMAGE_VERSION;
+import static io.cellery.CelleryConstants.DEFAULT_NAMESPACE;
+import static io.cellery.CelleryConstants.DEFAULT_TEST_PARALLELISM;
 import static io.cellery.CelleryConstants.INSTANCE_NAME;
 import static io.cellery.CelleryConstants.NAME;
 import static io.cellery.CelleryConstants.ORG;
 import static io.cellery.CelleryConstants.SERVICE_TYPE_JOB;
+import static io.cellery.CelleryConstants.TEST_FAIL_ON_ERROR_ENV_VAR;
+import static io.cellery.CelleryConstants.TEST_PARALLELISM_ENV_VAR;
 import static io.cellery.CelleryConstants.VERSION;
 import static io.cellery.CelleryConstants.YAML;
+import static io.cellery.CelleryUtils.getIntEnvironmentVariable;
 import static io.cellery.CelleryUtils.getValidName;
 import static io.cellery.CelleryUtils.printInfo;
 import static io.cellery.CelleryUtils.printWarning;
-import static io.cellery.CelleryUtils.toYaml;
 
 /**
  * Native function cellery:runTestSuite.
@@ -85,6 +99,8 @@ import static io.cellery.CelleryUtils.toYaml;
 public class RunTestSuite extends BlockingNativeCallableUnit {
     private static final String OUTPUT_DIRECTORY = System.getProperty("user.dir");
     private static final Logger log = LoggerFactory.getLogger(RunTestSuite.class);
+    private static final int TEST_POD_TIMEOUT_SECONDS = 10 * 60;
+    private static final int TEST_JOB_TIMEOUT_SECONDS = 60;
 
     @Override
     public void execute(Context ctx) {
@@ -115,6 +131,10 @@ public class RunTestSuite extends BlockingNativeCallableUnit {
     }
 
     private void executeTests(BRefType<?>[] tests, LinkedHashMap nameStruct) {
+        // Consecutive image based tests run concurrently, while the tests are otherwise run in the suite order
+        Map<String, Cell> pendingTestCells = new LinkedHashMap<>();
+        List<String> failedTests = new ArrayList<>();
+        int imageBasedTests = 0;
         for (BRefType<?> refType : tests) {
             String name = ((BMap) refType).getMap().get(NAME).toString();
             String instanceName = ((BString) nameStruct.get(INSTANCE_NAME)).stringValue();
@@ -127,100 +147,65 @@ public class RunTestSuite extends BlockingNativeCallableUnit {
             LinkedHashMap sourceMap = ((BMap) ((BMap) refType).getMap().get("source")).getMap();
             if (sourceMap.get("image") == null) {
                 test.setSource(sourceMap.get("filepath").toString());
+                failedTests.addAll(runImageBasedTests(pendingTestCells));
+                pendingTestCells.clear();
                 runInlineTest(instanceName);
             } else {
                 test.setSource(sourceMap.get("image").toString());
                 LinkedHashMap envMap = ((BMap) ((BMap) refType).getMap().get("envVars")).getMap();
                 CelleryUtils.processEnvVars(envMap, test);
-                Cell testCell = generateTestCell(test, nameStruct);
-                runImageBasedTest(testCell, test.getName());
+                pendingTestCells.put(test.getName(), generateTestCell(test, nameStruct));
+                imageBasedTests++;
             }
         }
-    }
-
-    /**
-     * Poll periodically for 10 minutes till the Pod reaches Running state.
-     *
-     * @param podName      name of the pod
-     * @param podInfo      pod info string from shell command output
-     * @param instanceName test cell name
-     * @throws InterruptedException thrown if error occurs in Thread.sleep
-     */
-    private boolean waitForPodRunning(String podName, String podInfo, String instanceName) throws
-            InterruptedException {
-        int min = 10;
-        for (int i = 0; i < 12 * min; i++) {
-            if (podName.isEmpty()) {
-                podInfo = CelleryUtils.executeShellCommand("kubectl get pods | grep " + instanceName + "--" +
-                                instanceName + "-job",
-                        null, CelleryUtils::printDebug, CelleryUtils::printWarning);
-                podName = podInfo.substring(0, podInfo.indexOf(' '));
-            }
-            if (!podInfo.contains("Running") && !podInfo.contains("Error") && !podInfo.contains("Completed")) {
-                Thread.sleep(5000);
-                podInfo = CelleryUtils.executeShellCommand("kubectl get pods | grep "
-                                + instanceName + "--" + instanceName + "-job",
-                        null, CelleryUtils::printDebug, CelleryUtils::printWarning);
-            } else {
-                return true;
-            }
+        failedTests.addAll(runImageBasedTests(pendingTestCells));
+        if (imageBasedTests > 0) {
+            printInfo("Test results: " + (imageBasedTests - failedTests.size()) + " passed, " + failedTests.size()
+                    + " failed");
+        }
+        // Failed tests are reported as warnings and fail the suite only when it is requested
+        if (!failedTests.isEmpty() && "true".equalsIgnoreCase(System.getenv(TEST_FAIL_ON_ERROR_ENV_VAR))) {
+            throw new BallerinaException("Tests failed: " + String.join(", ", failedTests));
         }
-        return false;
     }
 
     /**
-     * Poll periodically for 1 minute till the job reaches Complete or Failed state.
+     * Run image based tests concurrently.
      *
-     * @param jobName      name of the job
-     * @param podName      name of the pod
-     * @param instanceName test cell name
-     * @throws InterruptedException thrown if error occurs in Thread.sleep
+     * @param testCells test cells by test name
+     * @return names of the failed tests
      */
-    private void waitForJobCompletion(String jobName, String podName, String instanceName) throws InterruptedException {
-        printInfo("Waiting for test job to complete...");
-        String jobStatus = "";
-        int min = 1;
-        for (int i = 0; i < 12 * min; i++) {
-            jobStatus = CelleryUtils.executeShellCommand("kubectl get jobs " + jobName + " " +
-                            "-o jsonpath='{.status.conditions[?(@.type==\"Complete\")].status}'\n", null,
-                    CelleryUtils::printDebug, CelleryUtils::printWarning);
-
-            if (!"True".equalsIgnoreCase(jobStatus)) {
-                jobStatus = CelleryUtils.executeShellCommand("kubectl get jobs " + jobName + " " +
-                                "-o jsonpath='{.status.conditions[?(@.type==\"Failed\")].status}'\n", null,
-                        CelleryUtils::printDebug, CelleryUtils::printWarning);
-            }
-            if ("True".equalsIgnoreCase(jobStatus)) {
-                break;
-            }
-            Thread.sleep(5000);
-        }
-        if (!"True".equalsIgnoreCase(jobStatus)) {
-            printWarning("Error getting status of job " + jobName + ". Skipping collection of logs.");
-        } else {
-            printInfo("Test execution completed. Collecting logs to logs/" +
-                    instanceName + ".log");
-            CelleryUtils.executeShellCommand(
-                    "kubectl logs " + podName + " " + instanceName + " > logs/" + instanceName + ".log", null,
-                    CelleryUtils::printDebug, CelleryUtils::printWarning);
+    private List<String> runImageBasedTests(Map<String, Cell> testCells) {
+        List<String> failedTests = new ArrayList<>();
+        if (testCells.isEmpty()) {
+            return failedTests;
         }
-    }
-
-    private String getPodName(String podInfo, String instanceName) throws InterruptedException {
-        String podName;
-        int min = 1;
-        for (int i = 0; i < 12 * min; i++) {
-            if (podInfo.length() > 0) {
-                podName = podInfo.substring(0, podInfo.indexOf(' '));
-                return podName;
-            } else {
-                Thread.sleep(5000);
-                podInfo = CelleryUtils.executeShellCommand("kubectl get pods | grep "
-                                + instanceName + "--" + instanceName + "-job",
-                        null, CelleryUtils::printDebug, CelleryUtils::printWarning);
-            }
+        int parallelism = Math.max(1, Math.min(testCells.size(),
+                getIntEnvironmentVariable(TEST_PARALLELISM_ENV_VAR, DEFAULT_TEST_PARALLELISM)));
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "cellery-test-runner-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Map<String, CompletableFuture<Boolean>> results = new LinkedHashMap<>();
+            testCells.forEach((testName, testCell) -> results.put(testName, CompletableFuture.supplyAsync(() ->
+                    runImageBasedTest(testCell, testName), executor)));
+            results.forEach((testName, result) -> {
+                try {
+                    if (!result.join()) {
+                        failedTests.add(testName);
+                    }
+                } catch (CompletionException e) {
+                    printWarning("Error while executing test " + testName + ". " + e.getCause().getMessage());
+                    failedTests.add(testName);
+                }
+            });
+        } finally {
+            executor.shutdownNow();
         }
-        return null;
+        return failedTests;
     }
 
     /**
@@ -297,52 +282,96 @@ public class RunTestSuite extends BlockingNativeCallableUnit {
         return new Cell(objectMeta, cellSpec);
     }
 
-    private void runImageBasedTest(Cell testCell, String testName) {
+    /**
+     * Run an image based test.
+     *
+     * @param testCell test cell
+     * @param testName name of the test
+     * @return true if the test job completed successfully
+     */
+    private boolean runImageBasedTest(Cell testCell, String testName) {
         String targetPath = Paths.get(OUTPUT_DIRECTORY, "cellery", testName + YAML).toString();
         try {
+            CelleryUtils.writeYaml(testCell, targetPath);
+        } catch (IOException e) {
+            String errMsg = "Error occurred while writing cell yaml " + targetPath;
+            log.error(errMsg, e);
+            throw new BallerinaException(errMsg);
+        }
+        CelleryUtils.printDebug("Creating test cell " + testName);
+        KubernetesClient.apply(targetPath);
+        printInfo("Executing test " + testName + "...");
 
-            CelleryUtils.writeToFile(toYaml(testCell), targetPath);
-            CelleryUtils.printDebug("Creating test cell " + testName);
-            KubernetesClient.apply(targetPath);
-            printInfo("Executing test " + testName + "...");
-
-            // Wait for job to be available
-            Thread.sleep(5000);
+        String jobName = testName + "--" + testName + "-job";
+        String podName;
+        try {
+            CelleryUtils.printDebug("Waiting for a pod of job " + jobName + " to start...");
+            podName = await(KubernetesClient.awaitJobPod(jobName, TEST_POD_TIMEOUT_SECONDS, DEFAULT_NAMESPACE));
+        } catch (BallerinaException e) {
+            printWarning("Error while getting the test pod. " + e.getMessage() + ". Skipping execution of test " +
+                    testName);
+            deleteTestCell(testName);
+            return false;
+        }
+        CelleryUtils.printDebug("podName is: " + podName);
 
-            String jobName = testName + "--" + testName + "-job";
-            String podInfo = CelleryUtils.executeShellCommand("kubectl get pods | grep " + testName + "--" +
-                            testName + "-job",
-                    null, CelleryUtils::printDebug, CelleryUtils::printWarning);
-            String podName = getPodName(podInfo, testName);
-            if (podName == null) {
-                printWarning("Error while getting name of the test pod. Skipping execution of test " + testName);
-                return;
+        Path logFile = Paths.get(OUTPUT_DIRECTORY, "logs", testName + ".log");
+        try {
+            Files.createDirectories(logFile.getParent());
+            try (BufferedWriter logWriter = Files.newBufferedWriter(logFile, StandardCharsets.UTF_8)) {
+                KubernetesClient.streamLogs(podName, testName, DEFAULT_NAMESPACE, msg -> {
+                    // Logs of concurrently running tests are told apart by the test name prefix
+                    PrintStream out = System.out;
+                    out.println("[" + testName + "] " + msg);
+                    try {
+                        logWriter.write(msg);
+                        logWriter.newLine();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
             }
+        } catch (IOException | UncheckedIOException | BallerinaException e) {
+            printWarning("Error while writing logs of test " + testName + " to " + logFile + ". " +
+                    e.getMessage());
+        }
 
-            CelleryUtils.printDebug("podName is: " + podName);
-            CelleryUtils.printDebug("Waiting for pod " + podName + " status to be 'Running'...");
-
-            if (!waitForPodRunning(podName, podInfo, testName)) {
-                printWarning("Error getting status of pod " + podName + ". Skipping execution of test " + testName);
-                deleteTestCell(testName);
-                return;
+        printInfo("Waiting for test job " + jobName + " to complete...");
+        boolean passed = false;
+        try {
+            passed = await(KubernetesClient.awaitJobCompletion(jobName, TEST_JOB_TIMEOUT_SECONDS, DEFAULT_NAMESPACE));
+            if (passed) {
+                printInfo("Test " + testName + " completed. Logs are available at logs/" + testName + ".log");
+            } else {
+                printWarning("Test job " + jobName + " failed. Logs are available at logs/" + testName + ".log");
             }
+        } catch (BallerinaException e) {
+            printWarning("Error getting status of job " + jobName + ". " + e.getMessage());
+        }
+        deleteTestCell(testName);
+        return passed;
+    }
 
-            CelleryUtils.executeShellCommand("kubectl logs " + podName + " " + testName + " -f", null,
-                    msg -> {
-                        PrintStream out = System.out;
-                        out.println("Log: " + msg);
-                    }, CelleryUtils::printWarning);
-            
-            waitForJobCompletion(jobName, podName, testName);
-            deleteTestCell(testName);
-        } catch (IOException e) {
-            String errMsg = "Error occurred while writing cell yaml " + targetPath;
-            log.error(errMsg, e);
-            throw new BallerinaException(errMsg);
+    /**
+     * Wait for a Kubernetes operation to complete.
+     *
+     * @param future future of the operation
+     * @param <T>    result type
+     * @return result of the operation
+     */
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
         } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
             log.error("Error while waiting for test completion. ", e.getMessage());
             throw new BallerinaException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof BallerinaException) {
+                throw (BallerinaException) e.getCause();
+            }
+            throw new BallerinaException(e.getCause().getMessage());
         }
     }
 }
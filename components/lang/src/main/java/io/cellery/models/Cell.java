@@ -18,6 +18,9 @@
 
 package io.cellery.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import io.fabric8.kubernetes.api.model.ObjectMeta;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -29,6 +32,8 @@ import static io.cellery.CelleryConstants.CELLERY_RESOURCE_VERSION;
  */
 @EqualsAndHashCode(callSuper = true)
 @Data()
+@JsonDeserialize(using = JsonDeserializer.None.class)
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class Cell extends Composite {
     private CellSpec spec;
 
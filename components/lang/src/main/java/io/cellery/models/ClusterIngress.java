@@ -17,6 +17,7 @@
  */
 package io.cellery.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 
@@ -24,6 +25,7 @@ import lombok.Data;
  * Cluster Ingress model.
  */
 @Data
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class ClusterIngress {
     private String host;
     @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -18,6 +18,7 @@
 
 package io.cellery.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import io.fabric8.kubernetes.api.model.ObjectMeta;
 import lombok.Data;
 
@@ -25,6 +26,7 @@ import lombok.Data;
  * Component POJO.
  */
 @Data
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class Component {
     private ObjectMeta metadata;
     private ComponentSpec spec;
@@ -23,6 +23,6 @@ import lombok.Data;
  * Component Meta data model Class.
  */
 @Data
-class ComponentMeta {
+public class ComponentMeta {
     private DependencyMeta dependencies;
 }
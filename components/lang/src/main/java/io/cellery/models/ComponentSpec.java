@@ -18,6 +18,7 @@
 
 package io.cellery.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 
@@ -28,6 +29,7 @@ import java.util.List;
  * Component Spec.
  */
 @Data
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class ComponentSpec {
     private String type;
 
@@ -18,6 +18,7 @@
 
 package io.cellery.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import io.fabric8.kubernetes.api.model.Container;
 import lombok.Data;
 
@@ -28,6 +29,7 @@ import java.util.List;
  * ComponentTemplate POJO.
  */
 @Data
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class ComponentTemplate {
     private List<Container> containers;
 
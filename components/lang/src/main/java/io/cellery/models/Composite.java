@@ -17,6 +17,11 @@
  */
 package io.cellery.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.ObjectMeta;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -28,11 +33,15 @@ import static io.cellery.CelleryConstants.CELLERY_RESOURCE_VERSION;
  */
 @Data
 @NoArgsConstructor
-public class Composite {
+@JsonDeserialize(using = JsonDeserializer.None.class)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Composite implements HasMetadata {
     String apiVersion;
     String kind;
     ObjectMeta metadata;
     private CompositeSpec spec;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private InstanceStatus status;
 
     public Composite(ObjectMeta metadata, CompositeSpec spec) {
         kind = "Composite";
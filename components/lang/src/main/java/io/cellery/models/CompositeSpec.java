@@ -17,6 +17,7 @@
  */
 package io.cellery.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Data;
 
 import java.util.ArrayList;
@@ -28,6 +29,7 @@ import java.util.List;
 @Data
 //@NoArgsConstructor
 //@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class CompositeSpec {
     private List<Component> components;
 
@@ -18,12 +18,14 @@
 
 package io.cellery.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Data;
 
 /**
  * Destination POJO.
  */
 @Data
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class Destination {
     private String host;
     private int port;
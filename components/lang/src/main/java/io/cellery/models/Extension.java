@@ -18,6 +18,7 @@
 
 package io.cellery.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 
@@ -25,6 +26,7 @@ import lombok.Data;
  * Extension POJO.
  */
 @Data
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class Extension {
     @JsonInclude(JsonInclude.Include.NON_NULL)
     private OIDC oidc;
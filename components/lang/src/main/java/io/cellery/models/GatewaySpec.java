@@ -19,12 +19,14 @@
 
 package io.cellery.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Data;
 
 /**
  * Gateway Spec.
  */
 @Data
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class GatewaySpec {
     private Ingress ingress;
 }
@@ -17,12 +17,14 @@
  */
 package io.cellery.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Data;
 
 /**
  * Global API publisher config.
  */
 @Data
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class GlobalApiPublisher {
     private String context;
     private String version;
@@ -17,6 +17,7 @@
  */
 package io.cellery.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Data;
 
 import java.util.ArrayList;
@@ -26,6 +27,7 @@ import java.util.List;
  * Horizontal Pod Autoscaler customized.
  */
 @Data
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class HPA {
     private List<AutoScalingResourceMetric> metrics;
     private long minReplicas;
@@ -18,6 +18,7 @@
 
 package io.cellery.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Data;
 import org.apache.commons.lang3.StringUtils;
 
@@ -29,6 +30,7 @@ import java.util.stream.Collectors;
  * Ingress POJO.
  */
 @Data
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class Ingress {
     private Extension extensions;
     private List<API> http;
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.cellery.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runtime status of a Cell or Composite instance as reported by the Cellery controller.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class InstanceStatus {
+    private String status;
+    private List<InstanceCondition> conditions;
+
+    public InstanceStatus() {
+        conditions = new ArrayList<>();
+    }
+
+    /**
+     * Check whether a condition of the given type is set to True.
+     *
+     * @param type condition type
+     * @return true if the condition is met
+     */
+    public boolean isConditionTrue(String type) {
+        return conditions != null && conditions.stream()
+                .anyMatch(condition -> type.equals(condition.getType()) && "True".equals(condition.getStatus()));
+    }
+}
@@ -18,12 +18,14 @@
 
 package io.cellery.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Data;
 
 /**
  * KPA model class.
  */
 @Data
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class KPA {
     private long minReplicas;
     private long maxReplicas;
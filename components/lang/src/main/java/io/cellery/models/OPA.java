@@ -17,12 +17,14 @@
  */
 package io.cellery.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Data;
 
 /**
  * OPA Spec.
  */
 @Data
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class OPA {
     private String key;
     private String regoPolicy;
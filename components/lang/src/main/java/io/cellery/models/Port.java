@@ -18,12 +18,14 @@
 
 package io.cellery.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Data;
 
 /**
  * Port POJO.
  */
 @Data
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class Port {
     private String name;
     private int port;
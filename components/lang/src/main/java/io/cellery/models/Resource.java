@@ -18,6 +18,7 @@
 
 package io.cellery.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Data;
 
 import java.util.HashMap;
@@ -27,6 +28,7 @@ import java.util.Map;
  * Autoscaling Resource Model.
  */
 @Data
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class Resource {
     private String name;
     private Map target;
@@ -17,12 +17,14 @@
  */
 package io.cellery.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Data;
 
 /**
  * STS Template.
  */
 @Data
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class STSTemplate {
     private STSTemplateSpec spec;
 }
@@ -17,6 +17,7 @@
  */
 package io.cellery.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 
@@ -27,6 +28,7 @@ import java.util.List;
  * STS Template Spec.
  */
 @Data
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class STSTemplateSpec {
     @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<String> unsecuredPaths;
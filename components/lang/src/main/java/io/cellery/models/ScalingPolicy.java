@@ -18,12 +18,14 @@
 
 package io.cellery.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Data;
 
 /**
  * Scaling Policy Model.
  */
 @Data
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class ScalingPolicy {
     boolean overridable;
     private long replicas;
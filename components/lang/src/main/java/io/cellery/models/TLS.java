@@ -17,6 +17,7 @@
  */
 package io.cellery.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 
@@ -24,6 +25,7 @@ import lombok.Data;
  * TLS data.
  */
 @Data
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class TLS {
     @JsonInclude(JsonInclude.Include.NON_NULL)
     private String secret;
@@ -0,0 +1,366 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.cellery.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import io.cellery.models.APIDefinition;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import io.swagger.models.Swagger;
+import io.swagger.parser.SwaggerParser;
+import org.ballerinalang.util.exceptions.BallerinaException;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.cellery.CelleryConstants.API_DEFINITION_CACHE_DIR;
+import static io.cellery.CelleryConstants.TARGET;
+import static io.cellery.CelleryUtils.printDebug;
+
+/**
+ * Reads the resources defined in swagger 2 and OpenAPI 3 specifications. The resources of a specification are
+ * cached by the digest of its contents and the version of the reader, in memory and under the target directory, so
+ * that specifications shared by several components or unchanged since the previous build are not read again.
+ * Specifications are read with a streaming extractor which only looks at the base path or servers and the operations
+ * of each path, and the swagger parser is only used for swagger 2 specifications the extractor does not support.
+ */
+public class ApiDefinitionReader {
+    private static final Path CACHE_DIR = Paths.get(TARGET, API_DEFINITION_CACHE_DIR);
+    // Increment whenever the resources read from a specification change, so that cached resources are read again
+    private static final int VERSION = 1;
+    // Operations in the order in which the swagger parser lists them
+    private static final List<String> SWAGGER_OPERATIONS = Collections.unmodifiableList(Arrays.asList(
+            "get", "put", "post", "delete", "patch", "head", "options"));
+    private static final List<String> OPENAPI_OPERATIONS = Collections.unmodifiableList(Arrays.asList(
+            "get", "put", "post", "delete", "patch", "head", "options", "trace"));
+    private static final Map<String, List<APIDefinition>> cache = new ConcurrentHashMap<>();
+
+    private ApiDefinitionReader() {
+    }
+
+    /**
+     * Read the resources defined in a swagger 2 or OpenAPI 3 specification.
+     *
+     * @param specPath path to the specification
+     * @return resources with the base path prepended to their paths
+     * @throws IOException if reading the specification fails
+     */
+    public static List<APIDefinition> read(Path specPath) throws IOException {
+        String key = BuildIndex.fingerprintFile(specPath) + "-v" + VERSION;
+        List<APIDefinition> resources = cache.get(key);
+        if (resources == null) {
+            resources = load(key);
+            if (resources == null) {
+                resources = extract(specPath);
+                if (resources == null) {
+                    printDebug("Parsing " + specPath + " with the swagger parser");
+                    resources = parse(specPath);
+                }
+                save(key, resources);
+            }
+            resources = Collections.unmodifiableList(resources);
+            cache.put(key, resources);
+        }
+        return resources;
+    }
+
+    /**
+     * Extract the resources of a swagger 2 or OpenAPI 3 specification without building the specification model.
+     * Only the base path or the servers and the operations of each path are read, and the rest of the document is
+     * skipped token by token.
+     *
+     * @param specPath path to the specification
+     * @return resources, or null if the specification is not supported by the extractor
+     * @throws IOException if reading the specification fails
+     */
+    static List<APIDefinition> extract(Path specPath) throws IOException {
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(specPath));
+             JsonParser parser = getFactory(inputStream).createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            String swaggerVersion = null;
+            String openApiVersion = null;
+            String basePath = null;
+            String serverUrl = null;
+            Map<String, Set<String>> paths = Collections.emptyMap();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                if ("swagger".equals(field)) {
+                    swaggerVersion = parser.getValueAsString();
+                } else if ("openapi".equals(field)) {
+                    openApiVersion = parser.getValueAsString();
+                } else if ("basePath".equals(field)) {
+                    basePath = parser.getValueAsString();
+                } else if ("servers".equals(field)) {
+                    serverUrl = readServerUrl(parser);
+                } else if ("paths".equals(field)) {
+                    paths = readPaths(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (openApiVersion != null && openApiVersion.startsWith("3")) {
+                if (paths == null) {
+                    // There is no other parser to fall back to for OpenAPI 3 specifications
+                    throw new BallerinaException("Unsupported paths in OpenAPI specification " + specPath +
+                            ". Path item references are not supported");
+                }
+                return toResources(getServerPath(serverUrl), paths, OPENAPI_OPERATIONS);
+            } else if (swaggerVersion != null && swaggerVersion.startsWith("2") && paths != null) {
+                return toResources(basePath, paths, SWAGGER_OPERATIONS);
+            }
+            return null;
+        } catch (JsonProcessingException e) {
+            printDebug("Unable to extract resources from " + specPath + ". " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Read the operations of each path. Vendor extensions are skipped, and path items which refer to other
+     * documents are not supported.
+     *
+     * @return operations of each path, or null if the paths are not supported
+     */
+    private static Map<String, Set<String>> readPaths(JsonParser parser) throws IOException {
+        if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        Map<String, Set<String>> paths = new LinkedHashMap<>();
+        boolean supported = true;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String path = parser.getCurrentName();
+            if (path.startsWith("x-")) {
+                parser.nextToken();
+                parser.skipChildren();
+                continue;
+            }
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                supported = false;
+                parser.skipChildren();
+                continue;
+            }
+            Set<String> operations = new HashSet<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                supported &= !"$ref".equals(field);
+                if (parser.nextToken() != JsonToken.VALUE_NULL && OPENAPI_OPERATIONS.contains(field)) {
+                    operations.add(field);
+                }
+                parser.skipChildren();
+            }
+            paths.put(path, operations);
+        }
+        return supported ? paths : null;
+    }
+
+    /**
+     * Read the URL of the first server of an OpenAPI specification, with its variables replaced by their defaults.
+     */
+    private static String readServerUrl(JsonParser parser) throws IOException {
+        if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        String url = null;
+        Map<String, String> variables = new HashMap<>();
+        if (parser.nextToken() == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                if ("url".equals(field)) {
+                    url = parser.getValueAsString();
+                } else if ("variables".equals(field) && parser.getCurrentToken() == JsonToken.START_OBJECT) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String variable = parser.getCurrentName();
+                        parser.nextToken();
+                        String defaultValue = readDefault(parser);
+                        if (defaultValue != null) {
+                            variables.put(variable, defaultValue);
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        // Skip the remaining servers
+        while (parser.getCurrentToken() != null && parser.getCurrentToken() != JsonToken.END_ARRAY) {
+            parser.skipChildren();
+            parser.nextToken();
+        }
+        if (url == null) {
+            return null;
+        }
+        for (Map.Entry<String, String> variable : variables.entrySet()) {
+            url = url.replace("{" + variable.getKey() + "}", variable.getValue());
+        }
+        return url;
+    }
+
+    private static String readDefault(JsonParser parser) throws IOException {
+        if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        String defaultValue = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if ("default".equals(field)) {
+                defaultValue = parser.getValueAsString();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Get the path of a server URL, which is the base path of the resources of an OpenAPI specification. Server
+     * URLs may be absolute or relative to the location of the specification.
+     */
+    private static String getServerPath(String serverUrl) {
+        if (serverUrl == null) {
+            return null;
+        }
+        String path = serverUrl;
+        int schemeEnd = path.indexOf("://");
+        if (schemeEnd >= 0) {
+            int pathStart = path.indexOf('/', schemeEnd + 3);
+            path = pathStart < 0 ? "" : path.substring(pathStart);
+        }
+        int queryStart = path.indexOf('?');
+        if (queryStart >= 0) {
+            path = path.substring(0, queryStart);
+        }
+        if (!path.isEmpty() && !path.startsWith("/")) {
+            path = "/" + path;
+        }
+        return path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+
+    private static List<APIDefinition> toResources(String basePath, Map<String, Set<String>> paths,
+                                                   List<String> supportedOperations) {
+        String prefix = basePath == null || "/".equals(basePath) ? "" : basePath;
+        List<APIDefinition> resources = new ArrayList<>();
+        paths.forEach((path, operations) -> supportedOperations.stream()
+                .filter(operations::contains)
+                .forEach(operation -> resources.add(new APIDefinition(prefix + path,
+                        operation.toUpperCase(Locale.ENGLISH)))));
+        return resources;
+    }
+
+    /**
+     * Parse a swagger specification with the swagger parser.
+     */
+    static List<APIDefinition> parse(Path specPath) throws IOException {
+        Swagger swagger = new SwaggerParser().parse(new String(Files.readAllBytes(specPath), StandardCharsets.UTF_8));
+        if (swagger == null) {
+            throw new BallerinaException("Invalid swagger specification " + specPath);
+        }
+        String basePath = swagger.getBasePath() == null || "/".equals(swagger.getBasePath()) ? "" :
+                swagger.getBasePath();
+        List<APIDefinition> resources = new ArrayList<>();
+        if (swagger.getPaths() != null) {
+            swagger.getPaths().forEach((path, pathDefinition) ->
+                    pathDefinition.getOperationMap().forEach((httpMethod, operation) ->
+                            resources.add(new APIDefinition(basePath + path, httpMethod.toString()))));
+        }
+        return resources;
+    }
+
+    /**
+     * Get the factory for the format of a specification. JSON specifications are read with the JSON parser and
+     * the rest are read as YAML.
+     */
+    private static JsonFactory getFactory(InputStream inputStream) throws IOException {
+        inputStream.mark(1024);
+        int character;
+        do {
+            character = inputStream.read();
+        } while (character != -1 && Character.isWhitespace(character));
+        inputStream.reset();
+        return character == '{' ? Serialization.jsonMapper().getFactory() : Serialization.yamlMapper().getFactory();
+    }
+
+    private static List<APIDefinition> load(String key) {
+        Path cachePath = CACHE_DIR.resolve(key + ".json");
+        if (!Files.isRegularFile(cachePath)) {
+            return null;
+        }
+        try (Reader reader = Files.newBufferedReader(cachePath, StandardCharsets.UTF_8)) {
+            return Codec.fromJson(reader, new TypeToken<List<APIDefinition>>() { }.getType());
+        } catch (IOException | JsonParseException e) {
+            printDebug("Ignoring unreadable API definition cache " + cachePath + ". " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void save(String key, List<APIDefinition> resources) {
+        Path cachePath = CACHE_DIR.resolve(key + ".json");
+        try {
+            Files.createDirectories(CACHE_DIR);
+            Path tempPath = Files.createTempFile(CACHE_DIR, key, ".tmp");
+            try {
+                try (Writer writer = Files.newBufferedWriter(tempPath, StandardCharsets.UTF_8)) {
+                    Codec.writeJson(resources, writer);
+                }
+                try {
+                    Files.move(tempPath, cachePath, StandardCopyOption.REPLACE_EXISTING,
+                            StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tempPath, cachePath, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(tempPath);
+            }
+        } catch (IOException e) {
+            printDebug("Failed to cache API definitions in " + cachePath + ". " + e.getMessage());
+        }
+    }
+}
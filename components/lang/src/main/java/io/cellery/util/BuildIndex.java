@@ -0,0 +1,326 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.cellery.util;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static io.cellery.CelleryUtils.printDebug;
+import static io.cellery.CelleryUtils.printWarning;
+
+/**
+ * Index of the fingerprints of the inputs and outputs of a cell image build. The index is persisted between builds
+ * so that artifacts whose inputs have not changed since the previous build are neither regenerated nor rebuilt.
+ * The index is safe for use by concurrent builds of the artifacts of an image.
+ */
+public class BuildIndex {
+    // Bumped whenever the artifacts generated from the same inputs change
+    private static final String SCHEMA_VERSION = "1";
+    // Fingerprints of a build are not valid for the artifacts generated by another version of the generator
+    private static final String GENERATOR_VERSION = SCHEMA_VERSION + "/"
+            + BuildIndex.class.getPackage().getImplementationVersion();
+    // Files and directories copied by natives which run before the index of the build is created
+    private static final Set<Path> pendingOutputs = ConcurrentHashMap.newKeySet();
+
+    private final Path indexPath;
+    private final Map<String, Fingerprint> fingerprints;
+    // Files and directories produced by the current build
+    private final Set<Path> recordedOutputs = ConcurrentHashMap.newKeySet();
+
+    private BuildIndex(Path indexPath, Map<String, Fingerprint> fingerprints) {
+        this.indexPath = indexPath;
+        this.fingerprints = fingerprints;
+        for (Path output : pendingOutputs) {
+            pendingOutputs.remove(output);
+            recordedOutputs.add(output);
+        }
+    }
+
+    /**
+     * Load the build index. A missing or unreadable index is treated as empty.
+     *
+     * @param indexPath path to the build index
+     * @return build index
+     */
+    public static BuildIndex load(Path indexPath) {
+        Map<String, Fingerprint> fingerprints = new TreeMap<>();
+        if (Files.isRegularFile(indexPath)) {
+            try (Reader reader = Files.newBufferedReader(indexPath, StandardCharsets.UTF_8)) {
+                Map<String, Fingerprint> savedFingerprints = Codec.fromJson(reader,
+                        new TypeToken<Map<String, Fingerprint>>() { }.getType());
+                if (savedFingerprints != null) {
+                    fingerprints.putAll(savedFingerprints);
+                }
+            } catch (IOException | JsonParseException e) {
+                printWarning("Ignoring unreadable build index " + indexPath + ". " + e.getMessage());
+            }
+        }
+        return new BuildIndex(indexPath, fingerprints);
+    }
+
+    /**
+     * Get an index which is never up to date and is not persisted, used when incremental builds are disabled.
+     *
+     * @return empty build index
+     */
+    public static BuildIndex disabled() {
+        return new BuildIndex(null, new TreeMap<>());
+    }
+
+    /**
+     * Get the output of an artifact if it was built from the given inputs by the previous build.
+     *
+     * @param key    artifact key
+     * @param inputs fingerprint of the inputs of the artifact
+     * @return output recorded for the artifact, or null if the artifact is not up to date
+     */
+    public synchronized String getOutput(String key, String inputs) {
+        Fingerprint fingerprint = fingerprints.get(key);
+        if (indexPath == null || fingerprint == null || !inputs.equals(fingerprint.inputs)) {
+            return null;
+        }
+        return fingerprint.output;
+    }
+
+    /**
+     * Check whether a file was generated from the given inputs by the previous build and has not been modified
+     * since.
+     *
+     * @param output file generated from the inputs
+     * @param inputs fingerprint of the inputs of the file
+     * @return true if the file is up to date
+     */
+    public synchronized boolean isUpToDate(Path output, String inputs) {
+        String outputFingerprint = getOutput(output.toString(), inputs);
+        if (outputFingerprint == null || !Files.isRegularFile(output)) {
+            return false;
+        }
+        try {
+            return fingerprintFile(output).equals(outputFingerprint);
+        } catch (IOException e) {
+            printDebug("Failed to fingerprint " + output + ". " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Record the inputs from which an artifact was built and its output.
+     *
+     * @param key    artifact key
+     * @param inputs fingerprint of the inputs of the artifact
+     * @param output output of the artifact
+     */
+    public synchronized void update(String key, String inputs, String output) {
+        fingerprints.put(key, new Fingerprint(inputs, output));
+    }
+
+    /**
+     * Record the inputs from which a file was generated.
+     *
+     * @param output file generated from the inputs
+     * @param inputs fingerprint of the inputs of the file
+     * @throws IOException if fingerprinting the file fails
+     */
+    public synchronized void update(Path output, String inputs) throws IOException {
+        update(output.toString(), inputs, fingerprintFile(output));
+    }
+
+    /**
+     * Persist the build index. The index is written to a temporary file which replaces the previous index.
+     *
+     * @throws IOException if writing the index fails
+     */
+    public synchronized void save() throws IOException {
+        if (indexPath == null) {
+            return;
+        }
+        Files.createDirectories(indexPath.getParent());
+        Path tempIndex = Files.createTempFile(indexPath.getParent(), indexPath.getFileName().toString(), ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(tempIndex, StandardCharsets.UTF_8)) {
+                Codec.writeJson(fingerprints, writer);
+            }
+            try {
+                Files.move(tempIndex, indexPath, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempIndex, indexPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempIndex);
+        }
+    }
+
+    /**
+     * Record a file or a directory as an output of the current build, so that it is kept when the outputs of the
+     * previous build are pruned.
+     *
+     * @param output file or directory produced by the current build
+     */
+    public void recordOutput(Path output) {
+        recordedOutputs.add(output.toAbsolutePath().normalize());
+    }
+
+    /**
+     * Record a file or a directory copied before the index of the current build is created, such as a swagger
+     * file copied while the cell image is being defined. The output is recorded by the next index created.
+     *
+     * @param output file or directory produced by the current build
+     */
+    public static void recordPendingOutput(Path output) {
+        pendingOutputs.add(output.toAbsolutePath().normalize());
+    }
+
+    /**
+     * Delete the files in a directory which were not recorded as outputs of the current build. Incremental builds
+     * keep the output directory between builds, and the outputs of removed or renamed components would otherwise be
+     * packaged into the image.
+     *
+     * @param directory directory to prune
+     * @throws IOException if deleting a file fails
+     */
+    public void pruneOutputs(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<Path> paths;
+        try (Stream<Path> walk = Files.walk(directory)) {
+            // Children are visited before their parents so that emptied directories can be removed
+            paths = walk.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+        }
+        for (Path path : paths) {
+            if (path.equals(directory) || isRecordedOutput(path.toAbsolutePath().normalize())) {
+                continue;
+            }
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> children = Files.list(path)) {
+                    if (children.findAny().isPresent()) {
+                        continue;
+                    }
+                }
+            }
+            Files.delete(path);
+            printDebug("Removed stale output " + path);
+        }
+    }
+
+    private boolean isRecordedOutput(Path path) {
+        for (Path current = path; current != null; current = current.getParent()) {
+            if (recordedOutputs.contains(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fingerprint a set of values. The version of the generator is a part of every fingerprint, so that artifacts
+     * generated by an earlier version are regenerated.
+     *
+     * @param values values to fingerprint
+     * @return fingerprint of the values
+     */
+    public static String fingerprint(String... values) {
+        MessageDigest digest = DigestUtils.getSha256Digest();
+        DigestUtils.updateDigest(digest, GENERATOR_VERSION);
+        digest.update((byte) 0);
+        for (String value : values) {
+            DigestUtils.updateDigest(digest, String.valueOf(value));
+            // Separate the values so that the boundaries between them are part of the fingerprint
+            digest.update((byte) 0);
+        }
+        return Hex.encodeHexString(digest.digest());
+    }
+
+    /**
+     * Fingerprint the contents of a file.
+     *
+     * @param file file to fingerprint
+     * @return fingerprint of the file
+     * @throws IOException if reading the file fails
+     */
+    public static String fingerprintFile(Path file) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            return DigestUtils.sha256Hex(inputStream);
+        }
+    }
+
+    /**
+     * Fingerprint the relative paths and the contents of the files in a directory.
+     *
+     * @param directory directory to fingerprint
+     * @param filter    selects the files to fingerprint by their path relative to the directory
+     * @return fingerprint of the directory
+     * @throws IOException if reading the directory fails
+     */
+    public static String fingerprintDirectory(Path directory, Predicate<Path> filter) throws IOException {
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(directory)) {
+            files = paths.filter(Files::isRegularFile)
+                    .filter(file -> filter.test(directory.relativize(file)))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        MessageDigest digest = DigestUtils.getSha256Digest();
+        for (Path file : files) {
+            DigestUtils.updateDigest(digest, directory.relativize(file).toString());
+            digest.update((byte) 0);
+            try (InputStream inputStream = Files.newInputStream(file)) {
+                DigestUtils.updateDigest(digest, inputStream);
+            }
+        }
+        return Hex.encodeHexString(digest.digest());
+    }
+
+    /**
+     * Fingerprints of the inputs and the output of an artifact.
+     */
+    private static class Fingerprint {
+        private String inputs;
+        private String output;
+
+        Fingerprint(String inputs, String output) {
+            this.inputs = inputs;
+            this.output = output;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.cellery.util;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import io.fabric8.kubernetes.client.utils.Serialization;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Shared codec for the Cellery artifact formats. The mappers are configured once and are safe for concurrent use, so
+ * native functions reuse them instead of creating and warming up mappers of their own.
+ *
+ * <ul>
+ * <li>Cell and composite YAMLs are read and written with the YAML mapper of the Kubernetes client, which is
+ * configured for the Kubernetes models.</li>
+ * <li>Models read from JSON artifacts such as metadata.json and from the API server ignore unknown fields.</li>
+ * <li>Small JSON documents such as reference.json and annotations are read and written with Gson.</li>
+ * </ul>
+ */
+public class Codec {
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private static final ObjectWriter YAML_WRITER = Serialization.yamlMapper().writer();
+    private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+
+    private Codec() {
+    }
+
+    /**
+     * Read a model from JSON. Fields which are not modeled are ignored.
+     *
+     * @param json JSON document
+     * @param type model type
+     * @param <T>  model type
+     * @return model
+     * @throws IOException if the document cannot be parsed
+     */
+    public static <T> T readJson(String json, Class<T> type) throws IOException {
+        return JSON_MAPPER.readValue(json, type);
+    }
+
+    /**
+     * Read a model from a JSON file. Fields which are not modeled are ignored.
+     *
+     * @param path path to the JSON file
+     * @param type model type
+     * @param <T>  model type
+     * @return model
+     * @throws IOException if reading or parsing the file fails
+     */
+    public static <T> T readJson(Path path, Class<T> type) throws IOException {
+        return JSON_MAPPER.readValue(path.toFile(), type);
+    }
+
+    /**
+     * Serialize an object to a YAML string.
+     *
+     * @param object object to serialize
+     * @return YAML document
+     * @throws IOException if serialization fails
+     */
+    public static String toYaml(Object object) throws IOException {
+        return YAML_WRITER.writeValueAsString(object);
+    }
+
+    /**
+     * Serialize an object as YAML to a writer.
+     *
+     * @param object object to serialize
+     * @param writer writer to which the YAML document is written
+     * @throws IOException if serialization fails
+     */
+    public static void writeYaml(Object object, Writer writer) throws IOException {
+        YAML_WRITER.writeValue(writer, object);
+    }
+
+    /**
+     * Parse a YAML file to a tree.
+     *
+     * @param path path to the YAML file
+     * @return document tree
+     * @throws IOException if reading or parsing the file fails
+     */
+    public static JsonNode readYamlTree(Path path) throws IOException {
+        return Serialization.yamlMapper().readTree(path.toFile());
+    }
+
+    /**
+     * Parse a YAML document into a tree.
+     *
+     * @param content YAML document
+     * @return document tree
+     * @throws IOException if parsing the document fails
+     */
+    public static JsonNode readYamlTree(byte[] content) throws IOException {
+        return Serialization.yamlMapper().readTree(content);
+    }
+
+    /**
+     * Convert a YAML document tree to a model.
+     *
+     * @param tree document tree
+     * @param type model type
+     * @param <T>  model type
+     * @return model
+     * @throws IOException if the tree cannot be converted to the model
+     */
+    public static <T> T treeToValue(JsonNode tree, Class<T> type) throws IOException {
+        return Serialization.yamlMapper().treeToValue(tree, type);
+    }
+
+    /**
+     * Serialize an object to a JSON string.
+     *
+     * @param object object to serialize
+     * @return JSON document
+     */
+    public static String toJson(Object object) {
+        return GSON.toJson(object);
+    }
+
+    /**
+     * Serialize an object as JSON to a file.
+     *
+     * @param object object to serialize
+     * @param path   path to the JSON file
+     * @throws IOException if writing the file fails
+     */
+    public static void writeJson(Object object, Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            GSON.toJson(object, writer);
+        }
+    }
+
+    /**
+     * Serialize an object as JSON to a writer.
+     *
+     * @param object object to serialize
+     * @param writer writer to which the JSON document is written
+     */
+    public static void writeJson(Object object, Writer writer) {
+        GSON.toJson(object, writer);
+    }
+
+    /**
+     * Deserialize a JSON string.
+     *
+     * @param json JSON document
+     * @param type type of the document
+     * @param <T>  type of the document
+     * @return deserialized document, or null if the document is empty
+     * @throws JsonParseException if the document cannot be parsed
+     */
+    public static <T> T fromJson(String json, Type type) {
+        return GSON.fromJson(json, type);
+    }
+
+    /**
+     * Deserialize a JSON document from a reader.
+     *
+     * @param reader reader of the JSON document
+     * @param type   type of the document
+     * @param <T>    type of the document
+     * @return deserialized document, or null if the document is empty
+     * @throws JsonParseException if the document cannot be parsed
+     */
+    public static <T> T fromJson(Reader reader, Type type) {
+        return GSON.fromJson(reader, type);
+    }
+}
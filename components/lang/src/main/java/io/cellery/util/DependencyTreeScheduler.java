@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.cellery.util;
+
+import io.cellery.models.Node;
+import org.ballerinalang.util.exceptions.BallerinaException;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Starts the nodes of a dependency tree in topological order. A node is started as soon as all of its children have
+ * been started, and independent nodes are started concurrently on a bounded worker pool, so the time taken to start
+ * the tree grows with its depth rather than with the number of nodes.
+ *
+ * @param <T> type of the data held by the tree nodes
+ */
+public class DependencyTreeScheduler<T> {
+    private final int parallelism;
+    private final NodeStarter<T> starter;
+
+    /**
+     * Create a dependency tree scheduler.
+     *
+     * @param parallelism maximum number of nodes started concurrently
+     * @param starter     starts a single node
+     */
+    public DependencyTreeScheduler(int parallelism, NodeStarter<T> starter) {
+        this.parallelism = Math.max(1, parallelism);
+        this.starter = starter;
+    }
+
+    /**
+     * Start all the nodes of the tree and wait for them to complete.
+     *
+     * @param root root of the tree
+     * @throws IOException if starting a node fails
+     */
+    public void start(Node<T> root) throws IOException {
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "cellery-instance-starter-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            schedule(root, executor).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof BallerinaException) {
+                throw (BallerinaException) cause;
+            }
+            throw new BallerinaException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private CompletableFuture<Void> schedule(Node<T> node, ExecutorService executor) {
+        CompletableFuture<?>[] children = node.getChildren().stream()
+                .map(child -> schedule(child, executor))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(children).thenRunAsync(() -> {
+            try {
+                starter.start(node);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Starts a single node of the dependency tree.
+     *
+     * @param <T> type of the data held by the tree nodes
+     */
+    public interface NodeStarter<T> {
+
+        /**
+         * Called once all the children of the node have been started.
+         *
+         * @param node node to start
+         * @throws IOException if starting the node fails
+         */
+        void start(Node<T> node) throws IOException;
+    }
+}
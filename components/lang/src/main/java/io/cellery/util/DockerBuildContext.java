@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.cellery.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Docker build context of a DockerSource component. The digest of a build context covers the Dockerfile and every
+ * file which is sent to the Docker daemon when building the image, so that an image needs to be rebuilt only when
+ * its digest changes.
+ */
+public class DockerBuildContext {
+    private static final String DOCKERFILE = "Dockerfile";
+    private static final String DOCKER_IGNORE = ".dockerignore";
+
+    private DockerBuildContext() {
+    }
+
+    /**
+     * Get the digest of a build context. Files excluded by the .dockerignore of the context are not part of the
+     * digest, unless the .dockerignore has exceptions, in which case every file is included.
+     *
+     * @param contextDir build context directory
+     * @return digest of the build context
+     * @throws IOException if reading the build context fails
+     */
+    public static String digest(Path contextDir) throws IOException {
+        List<PathMatcher> exclusions = readExclusions(contextDir);
+        return BuildIndex.fingerprintDirectory(contextDir, path -> isIncluded(path, exclusions));
+    }
+
+    private static List<PathMatcher> readExclusions(Path contextDir) throws IOException {
+        List<PathMatcher> exclusions = new ArrayList<>();
+        Path dockerIgnore = contextDir.resolve(DOCKER_IGNORE);
+        if (!Files.isRegularFile(dockerIgnore)) {
+            return exclusions;
+        }
+        FileSystem fileSystem = contextDir.getFileSystem();
+        for (String line : Files.readAllLines(dockerIgnore, StandardCharsets.UTF_8)) {
+            String pattern = line.trim();
+            if (pattern.isEmpty() || pattern.startsWith("#")) {
+                continue;
+            }
+            if (pattern.startsWith("!")) {
+                // Exceptions re-include excluded files, which is approximated by including everything
+                exclusions.clear();
+                return exclusions;
+            }
+            while (pattern.startsWith("/")) {
+                pattern = pattern.substring(1);
+            }
+            exclusions.add(fileSystem.getPathMatcher("glob:" + pattern));
+        }
+        return exclusions;
+    }
+
+    /**
+     * Check whether a file is sent to the Docker daemon. A file is excluded if a pattern matches the file or any of
+     * its parent directories, while the Dockerfile and the .dockerignore are always sent.
+     */
+    private static boolean isIncluded(Path relativePath, List<PathMatcher> exclusions) {
+        String fileName = relativePath.toString();
+        if (DOCKERFILE.equals(fileName) || DOCKER_IGNORE.equals(fileName)) {
+            return true;
+        }
+        for (Path path = relativePath; path != null; path = path.getParent()) {
+            for (PathMatcher exclusion : exclusions) {
+                if (exclusion.matches(path)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.cellery.util;
+
+import org.ballerinalang.util.exceptions.BallerinaException;
+import org.ballerinax.docker.generator.DockerArtifactHandler;
+import org.ballerinax.docker.generator.exceptions.DockerGenException;
+import org.ballerinax.docker.generator.models.DockerModel;
+
+import java.nio.file.Path;
+import java.util.Collections;
+
+import static io.cellery.CelleryUtils.executeShellCommand;
+import static io.cellery.CelleryUtils.printDebug;
+import static io.cellery.CelleryUtils.readShellCommandOutput;
+
+/**
+ * Builds, inspects and tags Docker images.
+ */
+public class DockerImageBuilder {
+
+    private DockerImageBuilder() {
+    }
+
+    /**
+     * Build a Docker image.
+     *
+     * @param dockerImageTag tag of the image
+     * @param dockerDir      docker directory
+     * @return image ID, or null if the ID of the built image is not available
+     */
+    public static String build(String dockerImageTag, Path dockerDir) {
+        DockerModel dockerModel = new DockerModel();
+        dockerModel.setName(dockerImageTag);
+        try {
+            DockerArtifactHandler dockerArtifactHandler = new DockerArtifactHandler(dockerModel);
+            dockerArtifactHandler.buildImage(dockerModel, dockerDir);
+        } catch (DockerGenException e) {
+            throw new BallerinaException("Error occurred while building Docker image " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BallerinaException("Interrupted while building Docker image " + dockerImageTag);
+        }
+        return getImageId(dockerImageTag);
+    }
+
+    /**
+     * Get the ID of a Docker image.
+     *
+     * @param dockerImageTag tag of the image
+     * @return image ID, or null if the image is not available
+     */
+    public static String getImageId(String dockerImageTag) {
+        try {
+            return readShellCommandOutput(null, message -> printDebug(message), message -> printDebug(message),
+                    Collections.emptyMap(), "docker", "image", "inspect", "--format", "{{.Id}}", dockerImageTag)
+                    .trim();
+        } catch (BallerinaException e) {
+            printDebug("Unable to inspect Docker image " + dockerImageTag + ". " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Tag an existing Docker image.
+     *
+     * @param imageId        ID of the image
+     * @param dockerImageTag tag to add to the image
+     * @return true if the image was tagged, false if the image is not available
+     */
+    public static boolean tag(String imageId, String dockerImageTag) {
+        try {
+            executeShellCommand(null, message -> printDebug(message), message -> printDebug(message),
+                    Collections.emptyMap(), "docker", "tag", imageId, dockerImageTag);
+            return true;
+        } catch (BallerinaException e) {
+            printDebug("Unable to tag Docker image " + imageId + " as " + dockerImageTag + ". " + e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,434 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.cellery.util;
+
+import io.cellery.CelleryUtils;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static io.cellery.CelleryConstants.CELLERY;
+import static io.cellery.CelleryConstants.CELLERY_HOME_PATH;
+import static io.cellery.CelleryConstants.DEFAULT_IMAGE_CACHE_SIZE_MB;
+import static io.cellery.CelleryConstants.IMAGE_CACHE_SIZE_ENV_VAR;
+import static io.cellery.CelleryConstants.YAML;
+import static io.cellery.CelleryUtils.printDebug;
+import static io.cellery.CelleryUtils.printWarning;
+
+/**
+ * Cache of extracted cell images. Image zips are extracted once into a directory keyed by the image name and the
+ * digest of the zip. Starting an instance appends a main function to the Ballerina sources of the image and rewrites
+ * its YAML, so users which modify the image get a working copy in which those files are copied and the rest are hard
+ * links to the cache entry. Files in the cache entry are read only, so that a file written in place through a link
+ * fails instead of modifying the shared entry. Users which only read the image use the cache entry directly.
+ * <p>
+ * The cache is bounded in size and the least recently used entries which are not in use are evicted. Entries in use
+ * hold a shared lock on a lock file next to the entry, so that other cellery processes do not evict them.
+ */
+public class ExtractedImageCache {
+    private static final String STAGING_SUFFIX = ".staging";
+    private static final String LOCK_SUFFIX = ".lock";
+    // Digest of the image zip along with the path, size and modification time of the zip it was computed from
+    private static final String DIGEST_FILE_NAME = ".zip-digest";
+    private static final String SOURCE_DIR = "src";
+    private static final String BAL = ".bal";
+    private static final String ARTIFACTS_DIR = "artifacts" + File.separator + CELLERY;
+
+    private final Path cacheDir;
+    private final Path workingDir;
+    private final long maxSize;
+    private final Map<Path, AtomicInteger> references = new ConcurrentHashMap<>();
+    private final Map<Path, Object> entryLocks = new ConcurrentHashMap<>();
+    private final Map<Path, FileLock> fileLocks = new ConcurrentHashMap<>();
+
+    /**
+     * Create the cache of extracted cell images under the cellery home directory. A single instance should be used
+     * within a process.
+     */
+    public ExtractedImageCache() {
+        this(Paths.get(CELLERY_HOME_PATH, "tmp", "image-cache"), Paths.get(CELLERY_HOME_PATH, "tmp"),
+                getMaxSize());
+    }
+
+    ExtractedImageCache(Path cacheDir, Path workingDir, long maxSize) {
+        this.cacheDir = cacheDir;
+        this.workingDir = workingDir;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Get a working copy of an extracted cell image in which the sources and the YAML of the image can be modified.
+     * The working copy is removed when the returned lease is closed.
+     *
+     * @param org     organization
+     * @param name    cell name
+     * @param version cell version
+     * @param zipPath path to the cell image zip
+     * @return lease of the working copy
+     * @throws IOException if the cell image extraction fails
+     */
+    public Lease acquire(String org, String name, String version, Path zipPath) throws IOException {
+        Path entry = retainEntry(org, name, version, zipPath);
+        try {
+            Files.createDirectories(workingDir);
+            Path workingCopy = Files.createTempDirectory(workingDir, "cellery-cell-image");
+            try {
+                createWorkingCopy(entry, workingCopy);
+            } catch (IOException | RuntimeException e) {
+                FileUtils.deleteQuietly(workingCopy.toFile());
+                throw e;
+            }
+            return new Lease(entry, workingCopy);
+        } catch (IOException | RuntimeException e) {
+            release(entry);
+            throw e;
+        }
+    }
+
+    /**
+     * Get an extracted cell image which is only read. The image is not evicted until the returned lease is closed.
+     *
+     * @param org     organization
+     * @param name    cell name
+     * @param version cell version
+     * @param zipPath path to the cell image zip
+     * @return lease of the cache entry
+     * @throws IOException if the cell image extraction fails
+     */
+    public Lease acquireReadOnly(String org, String name, String version, Path zipPath) throws IOException {
+        Path entry = retainEntry(org, name, version, zipPath);
+        return new Lease(entry, null);
+    }
+
+    private Path retainEntry(String org, String name, String version, Path zipPath) throws IOException {
+        Path versionDir = cacheDir.resolve(Paths.get(org, name, version));
+        Files.createDirectories(versionDir);
+        Path entry = versionDir.resolve(digest(versionDir, zipPath));
+        retain(entry);
+        try {
+            publish(entry, zipPath);
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+            evict();
+            return entry;
+        } catch (IOException | RuntimeException e) {
+            release(entry);
+            throw e;
+        }
+    }
+
+    /**
+     * Get the digest of an image zip. The digest is recorded along with the path, the size and the modification time
+     * of the zip, and the zip is hashed again only when one of them changes.
+     */
+    private static String digest(Path versionDir, Path zipPath) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(zipPath, BasicFileAttributes.class);
+        List<String> stamp = Arrays.asList(zipPath.toAbsolutePath().normalize().toString(),
+                Long.toString(attributes.size()), Long.toString(attributes.lastModifiedTime().toMillis()));
+        Path digestFile = versionDir.resolve(DIGEST_FILE_NAME);
+        try {
+            List<String> recorded = Files.readAllLines(digestFile, StandardCharsets.UTF_8);
+            if (recorded.size() == stamp.size() + 1 && recorded.subList(0, stamp.size()).equals(stamp)) {
+                return recorded.get(stamp.size());
+            }
+        } catch (NoSuchFileException e) {
+            printDebug("Digest of " + zipPath + " is not recorded");
+        }
+        String digest;
+        try (InputStream inputStream = Files.newInputStream(zipPath)) {
+            digest = DigestUtils.sha256Hex(inputStream);
+        }
+        List<String> record = new ArrayList<>(stamp);
+        record.add(digest);
+        Path staging = Files.createTempFile(versionDir, DIGEST_FILE_NAME, STAGING_SUFFIX);
+        try {
+            Files.write(staging, record, StandardCharsets.UTF_8);
+            try {
+                Files.move(staging, digestFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(staging, digestFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(staging);
+        }
+        return digest;
+    }
+
+    /**
+     * Mark an entry as in use. The first user of an entry in this process takes a shared lock on the lock file of
+     * the entry, which is held until the last user releases it.
+     */
+    private void retain(Path entry) throws IOException {
+        synchronized (entryLocks.computeIfAbsent(entry, key -> new Object())) {
+            if (!fileLocks.containsKey(entry)) {
+                fileLocks.put(entry, lock(getLockFile(entry)));
+            }
+            references.computeIfAbsent(entry, key -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+
+    /**
+     * Take a shared lock on a lock file. Lock files are deleted when their entry is evicted, so the lock is taken
+     * again if the lock file was replaced while waiting for it.
+     */
+    private static FileLock lock(Path lockFile) throws IOException {
+        while (true) {
+            FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            try {
+                Object fileKey = Files.readAttributes(lockFile, BasicFileAttributes.class).fileKey();
+                FileLock lock = channel.lock(0, Long.MAX_VALUE, true);
+                if (isSameFile(lockFile, fileKey)) {
+                    return lock;
+                }
+                channel.close();
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+    }
+
+    private static boolean isSameFile(Path path, Object fileKey) throws IOException {
+        try {
+            return fileKey == null || fileKey.equals(Files.readAttributes(path, BasicFileAttributes.class).fileKey());
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private static Path getLockFile(Path entry) {
+        return entry.resolveSibling(entry.getFileName() + LOCK_SUFFIX);
+    }
+
+    /**
+     * Extract the image zip into the cache entry unless it has already been extracted. The zip is extracted into
+     * a staging directory which is then moved to the entry, so that a partially extracted tree is never visible.
+     */
+    private void publish(Path entry, Path zipPath) throws IOException {
+        synchronized (entryLocks.computeIfAbsent(entry, key -> new Object())) {
+            if (Files.isDirectory(entry)) {
+                return;
+            }
+            Files.createDirectories(entry.getParent());
+            Path staging = Files.createTempDirectory(entry.getParent(), entry.getFileName() + STAGING_SUFFIX);
+            try {
+                CelleryUtils.unzip(zipPath.toString(), staging.toString());
+                makeReadOnly(staging);
+                try {
+                    Files.move(staging, entry, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(staging, entry);
+                }
+            } catch (IOException e) {
+                if (!Files.isDirectory(entry)) {
+                    throw e;
+                }
+                // Published by another process in the meantime
+                printDebug("Image " + entry + " was extracted by another process");
+            } finally {
+                FileUtils.deleteQuietly(staging.toFile());
+            }
+        }
+    }
+
+    private static void makeReadOnly(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.filter(Files::isRegularFile).forEach(path -> path.toFile().setWritable(false, false));
+        }
+    }
+
+    /**
+     * Create a working copy of an extracted image. The files which are modified while starting an instance are
+     * copied and the rest are linked to the cache entry, or copied if the file system does not support links.
+     */
+    private static void createWorkingCopy(Path entry, Path workingCopy) throws IOException {
+        try (Stream<Path> paths = Files.walk(entry)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                Path relativePath = entry.relativize(path);
+                Path targetPath = workingCopy.resolve(relativePath.toString());
+                if (Files.isDirectory(path)) {
+                    Files.createDirectories(targetPath);
+                } else if (isModified(relativePath)) {
+                    Files.copy(path, targetPath);
+                    targetPath.toFile().setWritable(true, true);
+                } else {
+                    try {
+                        Files.createLink(targetPath, path);
+                    } catch (IOException | UnsupportedOperationException e) {
+                        Files.copy(path, targetPath);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Check whether a file of an image is modified while starting an instance. A main function is appended to the
+     * Ballerina sources and the YAML of the image is rewritten.
+     */
+    static boolean isModified(Path relativePath) {
+        String fileName = relativePath.getFileName().toString();
+        return (relativePath.startsWith(SOURCE_DIR) && fileName.endsWith(BAL))
+                || (relativePath.startsWith(Paths.get(ARTIFACTS_DIR)) && fileName.endsWith(YAML));
+    }
+
+    /**
+     * Evict the least recently used entries which are not in use until the cache fits within its size limit.
+     */
+    private synchronized void evict() {
+        List<Path> entries = new ArrayList<>();
+        try (Stream<Path> paths = Files.walk(cacheDir, 4)) {
+            paths.filter(path -> cacheDir.relativize(path).getNameCount() == 4)
+                    .filter(path -> !path.getFileName().toString().contains(STAGING_SUFFIX))
+                    .filter(Files::isDirectory)
+                    .forEach(entries::add);
+        } catch (IOException e) {
+            printWarning("Failed to read image cache " + cacheDir + ". " + e.getMessage());
+            return;
+        }
+        Map<Path, Long> entrySizes = new HashMap<>();
+        long size = 0;
+        for (Path entry : entries) {
+            entrySizes.put(entry, FileUtils.sizeOfDirectory(entry.toFile()));
+            size += entrySizes.get(entry);
+        }
+        entries.sort(Comparator.comparingLong(entry -> entry.toFile().lastModified()));
+        for (Path entry : entries) {
+            if (size <= maxSize) {
+                return;
+            }
+            synchronized (entryLocks.computeIfAbsent(entry, key -> new Object())) {
+                AtomicInteger referenceCount = references.get(entry);
+                if (referenceCount != null && referenceCount.get() > 0) {
+                    continue;
+                }
+                // Entries in use by other processes hold a shared lock which prevents taking the exclusive lock
+                Path lockFile = getLockFile(entry);
+                try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE);
+                     FileLock lock = channel.tryLock()) {
+                    if (lock == null) {
+                        continue;
+                    }
+                    FileUtils.deleteDirectory(entry.toFile());
+                    // Deleted while holding the lock, so that waiting users take the lock on a new lock file
+                    Files.deleteIfExists(lockFile);
+                    size -= entrySizes.get(entry);
+                    printDebug("Evicted image " + entry + " from the image cache");
+                } catch (OverlappingFileLockException e) {
+                    printDebug("Image " + entry + " is in use by another image cache in this process");
+                } catch (IOException e) {
+                    printWarning("Failed to evict image " + entry + " from the image cache. " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static long getMaxSize() {
+        String maxSize = System.getenv(IMAGE_CACHE_SIZE_ENV_VAR);
+        if (StringUtils.isNotEmpty(maxSize)) {
+            try {
+                return Long.parseLong(maxSize.trim()) * 1024 * 1024;
+            } catch (NumberFormatException e) {
+                printWarning("Invalid value " + maxSize + " for " + IMAGE_CACHE_SIZE_ENV_VAR + ". Using " +
+                        DEFAULT_IMAGE_CACHE_SIZE_MB + "MB");
+            }
+        }
+        return DEFAULT_IMAGE_CACHE_SIZE_MB * 1024 * 1024;
+    }
+
+    private void release(Path entry) {
+        synchronized (entryLocks.computeIfAbsent(entry, key -> new Object())) {
+            AtomicInteger referenceCount = references.get(entry);
+            if (referenceCount == null || referenceCount.decrementAndGet() > 0) {
+                return;
+            }
+            FileLock lock = fileLocks.remove(entry);
+            if (lock != null) {
+                try {
+                    lock.channel().close();
+                } catch (IOException e) {
+                    printDebug("Failed to release the lock of image " + entry + ". " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Extracted cell image in use, which is either a working copy or the cache entry itself.
+     */
+    public class Lease implements Closeable {
+        private final Path entry;
+        private final Path workingCopy;
+        private boolean closed;
+
+        private Lease(Path entry, Path workingCopy) {
+            this.entry = entry;
+            this.workingCopy = workingCopy;
+        }
+
+        /**
+         * Get the directory of the extracted image.
+         *
+         * @return working copy directory, or the cache entry directory for read only leases
+         */
+        public Path getPath() {
+            return workingCopy == null ? entry : workingCopy;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (workingCopy != null) {
+                FileUtils.deleteQuietly(workingCopy.toFile());
+            }
+            release(entry);
+        }
+    }
+}
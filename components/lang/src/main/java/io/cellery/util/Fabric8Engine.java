@@ -0,0 +1,494 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.cellery.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.cellery.CelleryUtils.Writer;
+import io.cellery.models.Cell;
+import io.cellery.models.CellList;
+import io.cellery.models.Composite;
+import io.cellery.models.CompositeList;
+import io.cellery.models.DoneableCell;
+import io.cellery.models.DoneableComposite;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.apiextensions.CustomResourceDefinition;
+import io.fabric8.kubernetes.api.model.batch.Job;
+import io.fabric8.kubernetes.api.model.batch.JobCondition;
+import io.fabric8.kubernetes.api.model.apiextensions.CustomResourceDefinitionBuilder;
+import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.dsl.LogWatch;
+import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.kubernetes.client.dsl.Resource;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import io.fabric8.kubernetes.internal.KubernetesDeserializer;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.ballerinalang.util.exceptions.BallerinaException;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static io.cellery.CelleryConstants.CELL;
+import static io.cellery.CelleryConstants.CELLERY_API_VERSION;
+import static io.cellery.CelleryConstants.CELLERY_CRD_VERSION;
+import static io.cellery.CelleryConstants.CELLS;
+import static io.cellery.CelleryConstants.COMPOSITE;
+import static io.cellery.CelleryConstants.COMPOSITES;
+import static io.cellery.CelleryConstants.DEFAULT_NAMESPACE;
+import static io.cellery.CelleryConstants.FIELD_MANAGER;
+import static io.cellery.CelleryConstants.JOB_CONDITION_COMPLETE;
+import static io.cellery.CelleryConstants.JOB_CONDITION_FAILED;
+import static io.cellery.CelleryConstants.JOB_NAME_LABEL;
+import static io.cellery.CelleryConstants.KIND;
+import static io.cellery.CelleryConstants.MESH_CELLERY_IO;
+import static io.cellery.CelleryConstants.POD_PHASE_FAILED;
+import static io.cellery.CelleryConstants.POD_PHASE_RUNNING;
+import static io.cellery.CelleryConstants.POD_PHASE_SUCCEEDED;
+
+/**
+ * Kubernetes engine which talks to the API server in-process using a shared fabric8 client.
+ */
+public class Fabric8Engine implements KubernetesEngine {
+    private static final ScheduledExecutorService TIMEOUT_SCHEDULER =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "cellery-wait-timeout");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    // Resources which are created or replaced when the API server does not support server-side apply
+    private static final AtomicInteger fallbackThreadCount = new AtomicInteger();
+    private static final ExecutorService FALLBACK_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "cellery-apply-" + fallbackThreadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Plural resource names of the kinds which are not pluralized by the regular English rules
+    private static final Map<String, String> IRREGULAR_PLURALS = Collections.singletonMap("Endpoints", "endpoints");
+
+    private static final MediaType APPLY_PATCH = MediaType.parse("application/apply-patch+yaml");
+    private static final int HTTP_UNSUPPORTED_MEDIA_TYPE = 415;
+
+    private final DefaultKubernetesClient client;
+    private final MixedOperation<Cell, CellList, DoneableCell, Resource<Cell, DoneableCell>> cells;
+    private final MixedOperation<Composite, CompositeList, DoneableComposite,
+            Resource<Composite, DoneableComposite>> composites;
+    private final Map<String, InstanceWatcher<? extends Composite>> watchers = new ConcurrentHashMap<>();
+
+    Fabric8Engine(DefaultKubernetesClient client) {
+        this.client = client;
+        KubernetesDeserializer.registerCustomKind(CELLERY_API_VERSION, CELL, Cell.class);
+        KubernetesDeserializer.registerCustomKind(CELLERY_API_VERSION, COMPOSITE, Composite.class);
+        cells = client.customResources(getDefinition(CELLS, CELL), Cell.class, CellList.class, DoneableCell.class);
+        composites = client.customResources(getDefinition(COMPOSITES, COMPOSITE), Composite.class,
+                CompositeList.class, DoneableComposite.class);
+    }
+
+    @Override
+    public void apply(String fileName) {
+        try {
+            JsonNode resource = Serialization.yamlMapper().readTree(new File(fileName));
+            String kind = resource.path(KIND).asText();
+            if (CELL.equals(kind)) {
+                cells.inNamespace(getNamespace())
+                        .createOrReplace(Serialization.jsonMapper().treeToValue(resource, Cell.class));
+            } else if (COMPOSITE.equals(kind)) {
+                composites.inNamespace(getNamespace())
+                        .createOrReplace(Serialization.jsonMapper().treeToValue(resource, Composite.class));
+            } else {
+                try (InputStream inputStream = new FileInputStream(fileName)) {
+                    client.load(inputStream).inNamespace(getNamespace()).createOrReplace();
+                }
+            }
+        } catch (IOException | KubernetesClientException e) {
+            throw new BallerinaException("Error while applying " + fileName + ". " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void applyAll(List<? extends HasMetadata> resources) {
+        String namespace = getNamespace();
+        // The resources are submitted together and the results are collected once all of them have completed
+        Map<HasMetadata, CompletableFuture<Void>> results = new LinkedHashMap<>();
+        resources.forEach(resource -> results.put(resource, serverSideApply(resource, namespace)));
+        List<String> failures = new ArrayList<>();
+        results.forEach((resource, result) -> {
+            try {
+                result.join();
+            } catch (CompletionException e) {
+                failures.add(getName(resource) + ": " + e.getCause().getMessage());
+            }
+        });
+        if (!failures.isEmpty()) {
+            throw new BallerinaException("Failed to apply " + failures.size() + " of " + resources.size() +
+                    " resources. " + String.join("; ", failures));
+        }
+    }
+
+    /**
+     * Apply a resource with a server-side apply patch. Resources are created or replaced instead if the API server
+     * does not support server-side apply.
+     */
+    private CompletableFuture<Void> serverSideApply(HasMetadata resource, String namespace) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        HttpUrl url = HttpUrl.parse(client.getMasterUrl().toString()).newBuilder()
+                .addPathSegments(getResourcePath(resource, namespace))
+                .addQueryParameter("fieldManager", FIELD_MANAGER)
+                .addQueryParameter("force", "true")
+                .build();
+        Request request = new Request.Builder()
+                .url(url)
+                .patch(RequestBody.create(APPLY_PATCH, Serialization.asJson(resource)))
+                .build();
+        client.getHttpClient().newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                result.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (ResponseBody body = response.body()) {
+                    if (response.isSuccessful()) {
+                        result.complete(null);
+                    } else if (response.code() == HTTP_UNSUPPORTED_MEDIA_TYPE) {
+                        // The fallback blocks, so it is not run on the dispatcher thread of the HTTP client
+                        FALLBACK_EXECUTOR.execute(() -> {
+                            try {
+                                createOrReplace(resource, namespace);
+                                result.complete(null);
+                            } catch (RuntimeException e) {
+                                result.completeExceptionally(e);
+                            }
+                        });
+                    } else {
+                        result.completeExceptionally(new BallerinaException(response.code() + " " +
+                                (body == null ? response.message() : body.string())));
+                    }
+                } catch (IOException | RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            }
+        });
+        return result;
+    }
+
+    private void createOrReplace(HasMetadata resource, String namespace) {
+        if (resource instanceof Cell) {
+            cells.inNamespace(namespace).createOrReplace((Cell) resource);
+        } else if (resource instanceof Composite) {
+            composites.inNamespace(namespace).createOrReplace((Composite) resource);
+        } else {
+            client.resource(resource).inNamespace(namespace).createOrReplace();
+        }
+    }
+
+    private String getNamespace() {
+        return client.getNamespace() == null ? DEFAULT_NAMESPACE : client.getNamespace();
+    }
+
+    private static String getResourcePath(HasMetadata resource, String namespace) {
+        String apiVersion = resource.getApiVersion();
+        String apiPath = apiVersion.contains("/") ? "apis/" + apiVersion : "api/" + apiVersion;
+        return apiPath + "/namespaces/" + namespace + "/" + getPlural(resource.getKind()) + "/" +
+                resource.getMetadata().getName();
+    }
+
+    /**
+     * Get the plural resource name of a kind, such as ingresses for Ingress and networkpolicies for NetworkPolicy.
+     */
+    private static String getPlural(String kind) {
+        String irregularPlural = IRREGULAR_PLURALS.get(kind);
+        if (irregularPlural != null) {
+            return irregularPlural;
+        }
+        String name = kind.toLowerCase(Locale.ENGLISH);
+        if (name.endsWith("s") || name.endsWith("x") || name.endsWith("z") || name.endsWith("ch")
+                || name.endsWith("sh")) {
+            return name + "es";
+        }
+        if (name.endsWith("y") && name.length() > 1 && "aeiou".indexOf(name.charAt(name.length() - 2)) < 0) {
+            return name.substring(0, name.length() - 1) + "ies";
+        }
+        return name + "s";
+    }
+
+    private static String getName(HasMetadata resource) {
+        return resource.getKind() + "/" + resource.getMetadata().getName();
+    }
+
+    @Override
+    public CompletableFuture<Void> awaitCondition(String condition, int timeoutSeconds, String resourceName,
+                                                  String namespace) {
+        String[] resource = resourceName.split("/", 2);
+        InstanceWatcher<?> watcher = getWatcher(resource[0], namespace);
+        CompletableFuture<Void> instanceFuture = watcher.await(condition, resource[1]);
+        // Timeouts are applied per caller as the instance future is shared among the callers
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        instanceFuture.whenComplete((result, error) -> {
+            if (error == null) {
+                future.complete(null);
+            } else {
+                future.completeExceptionally(error);
+            }
+        });
+        ScheduledFuture<?> timeout = TIMEOUT_SCHEDULER.schedule(() -> future.completeExceptionally(
+                new BallerinaException("Timed out waiting for condition " + condition + " on " + resourceName)),
+                timeoutSeconds, TimeUnit.SECONDS);
+        future.whenComplete((result, error) -> {
+            timeout.cancel(false);
+            // A caller which timed out or was cancelled no longer awaits the instance future
+            if (!instanceFuture.isDone()) {
+                watcher.abandon(condition, resource[1], instanceFuture);
+            }
+        });
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<String> awaitJobPod(String jobName, int timeoutSeconds, String namespace) {
+        return Fabric8Engine.<Pod, String>watchUntil(watcher -> client.pods().inNamespace(namespace)
+                        .withLabel(JOB_NAME_LABEL, jobName).watch(watcher),
+                () -> client.pods().inNamespace(namespace).withLabel(JOB_NAME_LABEL, jobName).list().getItems(),
+                pod -> {
+                    String phase = pod.getStatus() == null ? null : pod.getStatus().getPhase();
+                    if (POD_PHASE_RUNNING.equals(phase) || POD_PHASE_SUCCEEDED.equals(phase) ||
+                            POD_PHASE_FAILED.equals(phase)) {
+                        return pod.getMetadata().getName();
+                    }
+                    return null;
+                }, timeoutSeconds, "pod of job " + jobName);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> awaitJobCompletion(String jobName, int timeoutSeconds, String namespace) {
+        return Fabric8Engine.<Job, Boolean>watchUntil(watcher -> client.batch().jobs().inNamespace(namespace)
+                        .withName(jobName).watch(watcher),
+                () -> {
+                    Job job = client.batch().jobs().inNamespace(namespace).withName(jobName).get();
+                    return job == null ? Collections.emptyList() : Collections.singletonList(job);
+                },
+                job -> {
+                    if (job.getStatus() == null || job.getStatus().getConditions() == null) {
+                        return null;
+                    }
+                    for (JobCondition condition : job.getStatus().getConditions()) {
+                        if (Boolean.parseBoolean(condition.getStatus())) {
+                            if (JOB_CONDITION_COMPLETE.equals(condition.getType())) {
+                                return true;
+                            } else if (JOB_CONDITION_FAILED.equals(condition.getType())) {
+                                return false;
+                            }
+                        }
+                    }
+                    return null;
+                }, timeoutSeconds, "job " + jobName);
+    }
+
+    @Override
+    public void streamLogs(String podName, String container, String namespace, Writer writer) {
+        try (LogWatch logWatch = client.pods().inNamespace(namespace).withName(podName).inContainer(container)
+                .watchLog();
+             BufferedReader reader = new BufferedReader(new InputStreamReader(logWatch.getOutput(),
+                     StandardCharsets.UTF_8))) {
+            reader.lines().forEach(writer::writeMessage);
+        } catch (IOException | UncheckedIOException | KubernetesClientException e) {
+            throw new BallerinaException("Error while reading logs of pod " + podName + ". " + e.getMessage());
+        }
+    }
+
+    @Override
+    public Cell getCell(String name) {
+        try {
+            return cells.inNamespace(getNamespace()).withName(name).get();
+        } catch (KubernetesClientException e) {
+            throw new BallerinaException("Error while getting cell " + name + ". " + e.getMessage());
+        }
+    }
+
+    @Override
+    public Composite getComposite(String name) {
+        try {
+            return composites.inNamespace(getNamespace()).withName(name).get();
+        } catch (KubernetesClientException e) {
+            throw new BallerinaException("Error while getting composite " + name + ". " + e.getMessage());
+        }
+    }
+
+    @Override
+    public List<Cell> getCells() {
+        try {
+            return cells.inNamespace(getNamespace()).list().getItems();
+        } catch (KubernetesClientException e) {
+            throw new BallerinaException("Error while listing cells. " + e.getMessage());
+        }
+    }
+
+    @Override
+    public List<Composite> getComposites() {
+        try {
+            return composites.inNamespace(getNamespace()).list().getItems();
+        } catch (KubernetesClientException e) {
+            throw new BallerinaException("Error while listing composites. " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        watchers.values().forEach(InstanceWatcher::close);
+        client.close();
+    }
+
+    /**
+     * Watch resources until one of them matches.
+     *
+     * @param watchFactory   starts a watch on the resources
+     * @param lister         lists the current state of the resources
+     * @param matcher        returns the result for a matching resource and null for the other resources
+     * @param timeoutSeconds waiting time for a matching resource
+     * @param description    description of the awaited resource
+     * @param <T>            resource type
+     * @param <R>            result type
+     * @return future which is completed with the result of the first matching resource
+     */
+    private static <T, R> CompletableFuture<R> watchUntil(Function<Watcher<T>, Watch> watchFactory,
+                                                          Supplier<List<T>> lister, Function<T, R> matcher,
+                                                          int timeoutSeconds, String description) {
+        CompletableFuture<R> result = new CompletableFuture<>();
+        Watch watch;
+        try {
+            watch = watchFactory.apply(new Watcher<T>() {
+                @Override
+                public void eventReceived(Action action, T resource) {
+                    if (action != Action.DELETED && action != Action.ERROR) {
+                        complete(result, matcher.apply(resource));
+                    }
+                }
+
+                @Override
+                public void onClose(KubernetesClientException cause) {
+                    if (cause != null) {
+                        result.completeExceptionally(new BallerinaException("Watch of " + description +
+                                " closed. " + cause.getMessage()));
+                    }
+                }
+            });
+        } catch (KubernetesClientException e) {
+            result.completeExceptionally(new BallerinaException("Error while watching " + description + ". " +
+                    e.getMessage()));
+            return result;
+        }
+        try {
+            // The resource might have reached the awaited state before the watch was started
+            lister.get().forEach(resource -> complete(result, matcher.apply(resource)));
+        } catch (KubernetesClientException e) {
+            result.completeExceptionally(new BallerinaException("Error while getting " + description + ". " +
+                    e.getMessage()));
+        }
+        ScheduledFuture<?> timeout = TIMEOUT_SCHEDULER.schedule(() -> result.completeExceptionally(
+                new BallerinaException("Timed out waiting for " + description)), timeoutSeconds, TimeUnit.SECONDS);
+        result.whenComplete((value, error) -> {
+            timeout.cancel(false);
+            watch.close();
+        });
+        return result;
+    }
+
+    private static <R> void complete(CompletableFuture<R> future, R value) {
+        if (value != null) {
+            future.complete(value);
+        }
+    }
+
+    /**
+     * Get the shared watcher of a resource type in a namespace.
+     *
+     * @param type      resource type
+     * @param namespace namespace
+     * @return instance watcher
+     */
+    private InstanceWatcher<? extends Composite> getWatcher(String type, String namespace) {
+        boolean isCell = type.startsWith(CELLS);
+        return watchers.computeIfAbsent((isCell ? CELLS : COMPOSITES) + "/" + namespace, key -> {
+            if (isCell) {
+                return new InstanceWatcher<Cell>(watcher -> cells.inNamespace(namespace).watch(watcher),
+                        name -> cells.inNamespace(namespace).withName(name).get());
+            }
+            return new InstanceWatcher<Composite>(watcher -> composites.inNamespace(namespace).watch(watcher),
+                    name -> composites.inNamespace(namespace).withName(name).get());
+        });
+    }
+
+    /**
+     * Build the definition of a Cellery custom resource.
+     *
+     * @param plural plural name of the resource
+     * @param kind   kind of the resource
+     * @return custom resource definition
+     */
+    private static CustomResourceDefinition getDefinition(String plural, String kind) {
+        return new CustomResourceDefinitionBuilder()
+                .withNewMetadata()
+                .withName(plural + "." + MESH_CELLERY_IO)
+                .endMetadata()
+                .withNewSpec()
+                .withGroup(MESH_CELLERY_IO)
+                .withVersion(CELLERY_CRD_VERSION)
+                .withScope("Namespaced")
+                .withNewNames()
+                .withKind(kind)
+                .withPlural(plural)
+                .endNames()
+                .endSpec()
+                .build();
+    }
+}
@@ -0,0 +1,347 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.cellery.util;
+
+import io.cellery.models.ComponentMeta;
+import io.cellery.models.DependencyMeta;
+import io.cellery.models.Meta;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static io.cellery.CelleryUtils.printWarning;
+
+/**
+ * Compact binary index of the metadata and the reference of a cell image. The index is written by the CLI next to
+ * the metadata.json of an image and is read instead of the JSON files when it is present, as it is decoded without
+ * tokenizing JSON and the strings repeated across a dependency tree are stored and loaded only once.
+ * <p>
+ * The index is big endian and laid out as follows. Strings are a 32 bit byte length followed by UTF-8 bytes.
+ * <pre>
+ * "CIDX", u16 version
+ * JSON file header of metadata.json, JSON file header of reference.json
+ * u32 number of reference entries, followed by the key and the value of each entry
+ * u32 number of strings in the string table, followed by the strings
+ * metadata tree
+ * </pre>
+ * A node of the metadata tree is the string table indexes of org, name, ver and kind followed by the number of
+ * components, and for each component the index of its name followed by its cell and composite dependencies. Both
+ * are the number of dependencies followed by the index of the alias and the node of each dependency. The reference
+ * comes first so that it can be read without decoding the metadata tree.
+ * <p>
+ * The header of a JSON file is its i64 size, or -1 if the image does not have the file, its u32 CRC-32 and its hex
+ * encoded SHA-256, which is empty if the image does not have the file. The headers are used to detect an index which
+ * is out of date without hashing the JSON files on every read. The size and the CRC-32 of reference.json are
+ * compared with those which the image zip records for its entry. metadata.json is read from an extracted image and is
+ * trusted if its size is unchanged and it was not modified after the index, and is hashed otherwise.
+ */
+public class ImageIndex {
+    private static final byte[] MAGIC = {'C', 'I', 'D', 'X'};
+    private static final int VERSION = 3;
+    private static final long ABSENT = -1;
+    private static final int NULL_INDEX = -1;
+
+    private ImageIndex() {
+    }
+
+    /**
+     * Write the index of a cell image.
+     *
+     * @param indexFile     path to the index
+     * @param metadata      metadata of the cell image including its dependency tree
+     * @param metadataJson  contents of the metadata.json the metadata was read from
+     * @param reference     reference of the cell image
+     * @param referenceJson contents of the reference.json the reference was read from, or null if the image does not
+     *                      have a reference
+     * @throws IOException if writing the index fails
+     */
+    public static void write(Path indexFile, Meta metadata, byte[] metadataJson, Map<String, String> reference,
+                             byte[] referenceJson) throws IOException {
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        ByteArrayOutputStream tree = new ByteArrayOutputStream();
+        writeNode(new DataOutputStream(tree), metadata, strings);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(indexFile)))) {
+            out.write(MAGIC);
+            out.writeShort(VERSION);
+            writeHeader(out, metadataJson);
+            writeHeader(out, referenceJson);
+            out.writeInt(reference.size());
+            for (Map.Entry<String, String> entry : reference.entrySet()) {
+                writeString(out, entry.getKey());
+                writeString(out, entry.getValue());
+            }
+            out.writeInt(strings.size());
+            for (String value : strings.keySet()) {
+                writeString(out, value);
+            }
+            tree.writeTo(out);
+        }
+    }
+
+    /**
+     * Read the metadata of a cell image from its index.
+     *
+     * @param indexFile    path to the index
+     * @param metadataFile path to the metadata.json of the cell image
+     * @return metadata including the dependency tree, or null if the index is absent, unsupported or out of date
+     */
+    public static Meta readMetadata(Path indexFile, Path metadataFile) {
+        if (!Files.isRegularFile(indexFile) || !Files.isRegularFile(metadataFile)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (!isSupported(in) || !isMetadataUpToDate(in, indexFile, metadataFile)) {
+                return null;
+            }
+            skipHeader(in);
+            int referenceEntries = in.readInt();
+            for (int i = 0; i < referenceEntries * 2; i++) {
+                skipString(in);
+            }
+            String[] strings = new String[in.readInt()];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = readString(in);
+            }
+            return readNode(in, strings);
+        } catch (EOFException e) {
+            printWarning("Image index " + indexFile + " is truncated");
+            return null;
+        } catch (IOException e) {
+            printWarning("Failed to read image index " + indexFile + ". " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Read the reference of a cell image from its index.
+     *
+     * @param inputStream    index
+     * @param zipFile        zip of the cell image
+     * @param referenceEntry entry of the reference.json in the zip, or null if the image does not have a reference
+     * @return reference, or null if the index is unsupported or out of date
+     * @throws IOException if reading the index fails
+     */
+    public static Map<String, String> readReference(InputStream inputStream, ZipFile zipFile,
+                                                    ZipEntry referenceEntry) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+        if (!isSupported(in)) {
+            return null;
+        }
+        skipHeader(in);
+        if (!isReferenceUpToDate(in, zipFile, referenceEntry)) {
+            return null;
+        }
+        int entries = in.readInt();
+        Map<String, String> reference = new LinkedHashMap<>();
+        for (int i = 0; i < entries; i++) {
+            reference.put(readString(in), readString(in));
+        }
+        return reference;
+    }
+
+    private static boolean isSupported(DataInputStream in) throws IOException {
+        byte[] magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        return Arrays.equals(MAGIC, magic) && in.readUnsignedShort() == VERSION;
+    }
+
+    /**
+     * Check the header of metadata.json against the file. The file is hashed only if it was modified after the
+     * index, as the index is written after the metadata and extracting an image keeps the times of its files.
+     */
+    private static boolean isMetadataUpToDate(DataInputStream in, Path indexFile, Path metadataFile)
+            throws IOException {
+        long size = in.readLong();
+        in.readInt();
+        String recordedDigest = readString(in);
+        if (size != Files.size(metadataFile)) {
+            return false;
+        }
+        FileTime lastModified = Files.getLastModifiedTime(metadataFile);
+        return lastModified.compareTo(Files.getLastModifiedTime(indexFile)) <= 0
+                || recordedDigest.equals(digest(Files.readAllBytes(metadataFile)));
+    }
+
+    /**
+     * Check the header of reference.json against the size and the CRC-32 recorded for its entry by the zip. The
+     * entry is hashed only if the zip does not record them.
+     */
+    private static boolean isReferenceUpToDate(DataInputStream in, ZipFile zipFile, ZipEntry referenceEntry)
+            throws IOException {
+        long size = in.readLong();
+        long crc = in.readInt() & 0xFFFFFFFFL;
+        String recordedDigest = readString(in);
+        if (referenceEntry == null || size == ABSENT) {
+            return referenceEntry == null && size == ABSENT;
+        }
+        if (referenceEntry.getSize() != -1 && referenceEntry.getCrc() != -1) {
+            return referenceEntry.getSize() == size && referenceEntry.getCrc() == crc;
+        }
+        try (InputStream inputStream = zipFile.getInputStream(referenceEntry)) {
+            return recordedDigest.equals(digest(inputStream));
+        }
+    }
+
+    private static String digest(byte[] content) {
+        return DigestUtils.sha256Hex(content);
+    }
+
+    private static String digest(InputStream inputStream) throws IOException {
+        return DigestUtils.sha256Hex(inputStream);
+    }
+
+    private static void writeHeader(DataOutputStream out, byte[] json) throws IOException {
+        if (json == null) {
+            out.writeLong(ABSENT);
+            out.writeInt(0);
+            writeString(out, "");
+            return;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(json);
+        out.writeLong(json.length);
+        out.writeInt((int) crc.getValue());
+        writeString(out, digest(json));
+    }
+
+    private static void skipHeader(DataInputStream in) throws IOException {
+        in.readLong();
+        in.readInt();
+        skipString(in);
+    }
+
+    private static void writeNode(DataOutputStream out, Meta meta, Map<String, Integer> strings) throws IOException {
+        writeIndex(out, meta.getOrg(), strings);
+        writeIndex(out, meta.getName(), strings);
+        writeIndex(out, meta.getVer(), strings);
+        writeIndex(out, meta.getKind(), strings);
+        out.writeInt(meta.getComponents().size());
+        for (Map.Entry<String, ComponentMeta> component : meta.getComponents().entrySet()) {
+            writeIndex(out, component.getKey(), strings);
+            DependencyMeta dependencies = component.getValue() == null ? null
+                    : component.getValue().getDependencies();
+            writeDependencies(out, dependencies == null ? null : dependencies.getCells(), strings);
+            writeDependencies(out, dependencies == null ? null : dependencies.getComposites(), strings);
+        }
+    }
+
+    private static void writeDependencies(DataOutputStream out, Map<String, Meta> dependencies,
+                                          Map<String, Integer> strings) throws IOException {
+        if (dependencies == null) {
+            out.writeInt(0);
+            return;
+        }
+        out.writeInt(dependencies.size());
+        for (Map.Entry<String, Meta> dependency : dependencies.entrySet()) {
+            writeIndex(out, dependency.getKey(), strings);
+            writeNode(out, dependency.getValue(), strings);
+        }
+    }
+
+    private static void writeIndex(DataOutputStream out, String value, Map<String, Integer> strings)
+            throws IOException {
+        out.writeInt(value == null ? NULL_INDEX : strings.computeIfAbsent(value, key -> strings.size()));
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static Meta readNode(DataInputStream in, String[] strings) throws IOException {
+        Meta meta = new Meta();
+        meta.setOrg(readIndex(in, strings));
+        meta.setName(readIndex(in, strings));
+        meta.setVer(readIndex(in, strings));
+        meta.setKind(readIndex(in, strings));
+        int components = in.readInt();
+        for (int i = 0; i < components; i++) {
+            String name = readIndex(in, strings);
+            DependencyMeta dependencies = new DependencyMeta();
+            dependencies.setCells(readDependencies(in, strings));
+            dependencies.setComposites(readDependencies(in, strings));
+            ComponentMeta component = new ComponentMeta();
+            component.setDependencies(dependencies);
+            meta.getComponents().put(name, component);
+        }
+        return meta;
+    }
+
+    private static Map<String, Meta> readDependencies(DataInputStream in, String[] strings) throws IOException {
+        int count = in.readInt();
+        Map<String, Meta> dependencies = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            String alias = readIndex(in, strings);
+            dependencies.put(alias, readNode(in, strings));
+        }
+        return dependencies;
+    }
+
+    private static String readIndex(DataInputStream in, String[] strings) throws IOException {
+        int index = in.readInt();
+        if (index == NULL_INDEX) {
+            return null;
+        }
+        if (index < 0 || index >= strings.length) {
+            throw new IOException("Invalid string index " + index);
+        }
+        return strings[index];
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[readLength(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void skipString(DataInputStream in) throws IOException {
+        int length = readLength(in);
+        if (in.skipBytes(length) != length) {
+            throw new IOException("Unexpected end of the image index");
+        }
+    }
+
+    private static int readLength(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Invalid string length " + length);
+        }
+        return length;
+    }
+}
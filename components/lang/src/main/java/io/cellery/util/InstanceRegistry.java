@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.cellery.util;
+
+import org.ballerinalang.util.exceptions.BallerinaException;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the instances started during a single run. Concurrent requests to start an instance of the same
+ * cell image are collapsed into one start, and every caller receives the name of the instance that was started.
+ */
+public class InstanceRegistry {
+    private final Map<String, CompletableFuture<String>> instances = new ConcurrentHashMap<>();
+
+    /**
+     * Start an instance of a cell image unless one was already started during this run.
+     *
+     * @param cellImageName cell image name (org/name:version)
+     * @param instanceName  name of the instance to start if this is the first request for the cell image
+     * @param starter       starts the instance
+     * @return name of the instance of the cell image
+     * @throws IOException if starting the instance fails
+     */
+    public String startOnce(String cellImageName, String instanceName, InstanceStarter starter) throws IOException {
+        CompletableFuture<String> instance = new CompletableFuture<>();
+        CompletableFuture<String> existingInstance = instances.putIfAbsent(cellImageName, instance);
+        if (existingInstance != null) {
+            return await(existingInstance);
+        }
+        try {
+            starter.start();
+            instance.complete(instanceName);
+        } catch (IOException | RuntimeException e) {
+            instance.completeExceptionally(e);
+            throw e;
+        }
+        return instanceName;
+    }
+
+    private static String await(CompletableFuture<String> instance) throws IOException {
+        try {
+            return instance.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw new IOException(cause.getMessage(), cause);
+            } else if (cause instanceof BallerinaException) {
+                throw new BallerinaException(cause.getMessage(), cause);
+            }
+            throw new BallerinaException(cause);
+        }
+    }
+
+    /**
+     * Starts a single instance.
+     */
+    public interface InstanceStarter {
+        void start() throws IOException;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.cellery.util;
+
+import io.cellery.models.Composite;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static io.cellery.CelleryConstants.CELL;
+
+/**
+ * Snapshot of the cell and composite instances in the runtime. Each kind of instance is listed once, when it is
+ * first looked up, and the rest of the lookups are answered from memory. A snapshot is meant to be used within a
+ * single run, while validating the instances of a dependency tree.
+ */
+public class InstanceSnapshot {
+    private Map<String, Composite> cells;
+    private Map<String, Composite> composites;
+
+    /**
+     * Get a cell or composite instance.
+     *
+     * @param instance instance name
+     * @param kind     instance kind
+     * @return instance or null if the instance was not available when the snapshot was taken
+     */
+    public synchronized Composite getInstance(String instance, String kind) {
+        if (CELL.equals(kind)) {
+            if (cells == null) {
+                cells = list(KubernetesClient::getCells);
+            }
+            return cells.get(instance);
+        }
+        if (composites == null) {
+            composites = list(KubernetesClient::getComposites);
+        }
+        return composites.get(instance);
+    }
+
+    private static Map<String, Composite> list(Supplier<List<? extends Composite>> lister) {
+        Map<String, Composite> instances = new HashMap<>();
+        List<? extends Composite> items = lister.get();
+        (items == null ? Collections.<Composite>emptyList() : items)
+                .forEach(instance -> instances.put(instance.getMetadata().getName(), instance));
+        return instances;
+    }
+}
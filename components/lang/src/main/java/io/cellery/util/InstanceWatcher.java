@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.cellery.util;
+
+import io.cellery.models.Composite;
+import io.cellery.models.InstanceCondition;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import org.ballerinalang.util.exceptions.BallerinaException;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static io.cellery.CelleryUtils.printDebug;
+
+/**
+ * Shared watch on the Cell or Composite instances of a namespace. Each awaited instance condition is tracked by a
+ * future which is completed when the condition of the instance becomes True, so any number of instances can be
+ * awaited concurrently over a single watch connection.
+ *
+ * @param <T> instance type
+ */
+class InstanceWatcher<T extends Composite> implements Watcher<T> {
+    private final Function<Watcher<T>, Watch> watchFactory;
+    private final Function<String, T> instanceGetter;
+    private final Map<String, AwaitedCondition> awaitedConditions = new ConcurrentHashMap<>();
+    private Watch watch;
+
+    /**
+     * Create an instance watcher.
+     *
+     * @param watchFactory   opens a watch on the instances of the namespace
+     * @param instanceGetter reads the current state of an instance
+     */
+    InstanceWatcher(Function<Watcher<T>, Watch> watchFactory, Function<String, T> instanceGetter) {
+        this.watchFactory = watchFactory;
+        this.instanceGetter = instanceGetter;
+    }
+
+    /**
+     * Await a condition of an instance. Callers awaiting the same condition of the same instance share the future,
+     * and a caller which stops waiting before the future is completed must abandon it.
+     *
+     * @param condition condition type
+     * @param name      instance name
+     * @return future which is completed once the condition is True
+     */
+    CompletableFuture<Void> await(String condition, String name) {
+        String key = getKey(condition, name);
+        CompletableFuture<Void> future = awaitedConditions.compute(key, (k, awaited) -> {
+            if (awaited == null || awaited.future.isDone()) {
+                AwaitedCondition created = new AwaitedCondition();
+                created.future.whenComplete((result, error) -> awaitedConditions.remove(k, created));
+                awaited = created;
+            }
+            awaited.waiters++;
+            return awaited;
+        }).future;
+        try {
+            startWatch();
+            // The condition might have been met before the watch was started
+            T instance = instanceGetter.apply(name);
+            if (instance != null) {
+                completeConditions(instance);
+            }
+        } catch (KubernetesClientException | BallerinaException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Stop awaiting a condition of an instance, such as when the caller timed out. The condition is no longer
+     * tracked once every caller sharing the future has abandoned it, so that later callers do not join a future
+     * which nobody awaits.
+     *
+     * @param condition condition type
+     * @param name      instance name
+     * @param future    future returned when the condition was awaited
+     */
+    void abandon(String condition, String name, CompletableFuture<Void> future) {
+        awaitedConditions.computeIfPresent(getKey(condition, name), (key, awaited) -> {
+            if (awaited.future != future) {
+                return awaited;
+            }
+            return --awaited.waiters > 0 ? awaited : null;
+        });
+    }
+
+    @Override
+    public void eventReceived(Action action, T instance) {
+        if (instance == null || instance.getMetadata() == null) {
+            return;
+        }
+        String name = instance.getMetadata().getName();
+        switch (action) {
+            case DELETED:
+                awaitedConditions.forEach((key, awaited) -> {
+                    if (key.endsWith("/" + name)) {
+                        awaited.future.completeExceptionally(new BallerinaException("Instance " + name +
+                                " was deleted"));
+                    }
+                });
+                break;
+            case ADDED:
+            case MODIFIED:
+                completeConditions(instance);
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public synchronized void onClose(KubernetesClientException cause) {
+        watch = null;
+        if (cause == null || awaitedConditions.isEmpty()) {
+            return;
+        }
+        printDebug("Instance watch closed, restarting. " + cause.getMessage());
+        try {
+            startWatch();
+        } catch (KubernetesClientException e) {
+            awaitedConditions.values().forEach(awaited -> awaited.future.completeExceptionally(e));
+        }
+    }
+
+    /**
+     * Close the watch.
+     */
+    synchronized void close() {
+        if (watch != null) {
+            watch.close();
+            watch = null;
+        }
+    }
+
+    private synchronized void startWatch() {
+        if (watch == null) {
+            watch = watchFactory.apply(this);
+        }
+    }
+
+    private void completeConditions(T instance) {
+        if (instance.getStatus() == null || instance.getStatus().getConditions() == null) {
+            return;
+        }
+        String name = instance.getMetadata().getName();
+        for (InstanceCondition condition : instance.getStatus().getConditions()) {
+            if ("True".equals(condition.getStatus())) {
+                AwaitedCondition awaited = awaitedConditions.get(getKey(condition.getType(), name));
+                if (awaited != null) {
+                    awaited.future.complete(null);
+                }
+            }
+        }
+    }
+
+    private static String getKey(String condition, String name) {
+        return condition + "/" + name;
+    }
+
+    /**
+     * Future of an awaited condition and the number of callers awaiting it. The count is only updated while the
+     * condition is locked in the map of awaited conditions.
+     */
+    private static class AwaitedCondition {
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private int waiters;
+    }
+}
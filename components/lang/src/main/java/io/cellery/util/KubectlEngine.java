@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.cellery.util;
+
+import io.cellery.CelleryUtils;
+import io.cellery.CelleryUtils.Writer;
+import io.cellery.models.Cell;
+import io.cellery.models.CellList;
+import io.cellery.models.Composite;
+import io.cellery.models.CompositeList;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import org.apache.commons.io.FileUtils;
+import org.ballerinalang.util.exceptions.BallerinaException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static io.cellery.CelleryConstants.CELLS;
+import static io.cellery.CelleryConstants.COMPOSITES;
+import static io.cellery.CelleryConstants.FIELD_MANAGER;
+import static io.cellery.CelleryConstants.JOB_CONDITION_COMPLETE;
+import static io.cellery.CelleryConstants.JOB_CONDITION_FAILED;
+import static io.cellery.CelleryConstants.JOB_NAME_LABEL;
+import static io.cellery.CelleryConstants.POD_PHASE_FAILED;
+import static io.cellery.CelleryConstants.POD_PHASE_RUNNING;
+import static io.cellery.CelleryConstants.POD_PHASE_SUCCEEDED;
+import static io.cellery.CelleryConstants.YAML;
+
+/**
+ * Kubernetes engine which shells out to kubectl. Used as the fallback when an in-process client is not available.
+ */
+public class KubectlEngine implements KubernetesEngine {
+    private static final String NOT_FOUND = "not found";
+
+    KubectlEngine() {
+    }
+
+    @Override
+    public void apply(String fileName) {
+        CelleryUtils.executeShellCommand("kubectl apply -f  " + fileName, null,
+                CelleryUtils::printDebug, CelleryUtils::printWarning);
+    }
+
+    @Override
+    public void applyAll(List<? extends HasMetadata> resources) {
+        String names = resources.stream().map(KubectlEngine::getName).collect(Collectors.joining(", "));
+        Path resourcesFile = null;
+        try {
+            resourcesFile = Files.createTempFile("cellery-resources", YAML);
+            StringBuilder documents = new StringBuilder();
+            resources.forEach(resource -> documents.append(CelleryUtils.toYaml(resource)));
+            CelleryUtils.writeToFile(documents.toString(), resourcesFile.toString());
+            try {
+                CelleryUtils.executeShellCommand(null, CelleryUtils::printDebug, CelleryUtils::printWarning,
+                        Collections.emptyMap(), "kubectl", "apply", "--server-side", "--force-conflicts",
+                        "--field-manager=" + FIELD_MANAGER, "-f", resourcesFile.toString());
+            } catch (BallerinaException e) {
+                if (!e.getMessage().contains("unknown flag")) {
+                    throw e;
+                }
+                // kubectl versions without server-side apply
+                apply(resourcesFile.toString());
+            }
+        } catch (IOException | BallerinaException e) {
+            throw new BallerinaException("Error while applying " + names + ". " + e.getMessage());
+        } finally {
+            if (resourcesFile != null) {
+                FileUtils.deleteQuietly(resourcesFile.toFile());
+            }
+        }
+    }
+
+    private static String getName(HasMetadata resource) {
+        return resource.getKind() + "/" + resource.getMetadata().getName();
+    }
+
+    @Override
+    public CompletableFuture<Void> awaitCondition(String condition, int timeoutSeconds, String resourceName,
+                                                  String namespace) {
+        String[] command = {"kubectl", "wait", "--for=condition=" + condition, "--timeout=" + timeoutSeconds + "s",
+                resourceName, "-n", namespace};
+        return ProcessExecutor.execute(null, CelleryUtils::printDebug, CelleryUtils::printWarning,
+                Collections.emptyMap(), 0, command).thenAccept(result -> {
+            if (!result.isSuccessful()) {
+                throw new BallerinaException("Command " + String.join(" ", command) + " exited with exit code " +
+                        result.getExitCode() + " message: " + result.getStderr());
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<String> awaitJobPod(String jobName, int timeoutSeconds, String namespace) {
+        return watch(timeoutSeconds, line -> {
+            String[] pod = line.trim().split(" ");
+            if (pod.length == 2 && (POD_PHASE_RUNNING.equals(pod[1]) || POD_PHASE_SUCCEEDED.equals(pod[1]) ||
+                    POD_PHASE_FAILED.equals(pod[1]))) {
+                return pod[0];
+            }
+            return null;
+        }, "kubectl", "get", "pods", "-l", JOB_NAME_LABEL + "=" + jobName, "-n", namespace, "--watch",
+                "-o", "jsonpath={.metadata.name} {.status.phase}{\"\\n\"}");
+    }
+
+    @Override
+    public CompletableFuture<Boolean> awaitJobCompletion(String jobName, int timeoutSeconds, String namespace) {
+        return watch(timeoutSeconds, line -> {
+            if (line.contains(JOB_CONDITION_COMPLETE)) {
+                return true;
+            } else if (line.contains(JOB_CONDITION_FAILED)) {
+                return false;
+            }
+            return null;
+        }, "kubectl", "get", "jobs", jobName, "-n", namespace, "--watch", "-o",
+                "jsonpath={range .status.conditions[?(@.status==\"True\")]}{.type} {end}{\"\\n\"}");
+    }
+
+    @Override
+    public void streamLogs(String podName, String container, String namespace, Writer writer) {
+        CelleryUtils.executeShellCommand(null, writer, CelleryUtils::printWarning, Collections.emptyMap(),
+                "kubectl", "logs", "-f", podName, "-c", container, "-n", namespace);
+    }
+
+    @Override
+    public Cell getCell(String name) {
+        return getResource(CELLS, name, Cell.class);
+    }
+
+    @Override
+    public Composite getComposite(String name) {
+        return getResource(COMPOSITES, name, Composite.class);
+    }
+
+    @Override
+    public List<Cell> getCells() {
+        return listResources(CELLS, CellList.class).getItems();
+    }
+
+    @Override
+    public List<Composite> getComposites() {
+        return listResources(COMPOSITES, CompositeList.class).getItems();
+    }
+
+    @Override
+    public void close() {
+        // Processes are executed on the shared process executor and there is nothing to release
+    }
+
+    /**
+     * Watch the output of a kubectl watch command until a line of the output matches.
+     *
+     * @param timeoutSeconds waiting time for a matching line
+     * @param matcher        returns the result for a matching line and null for the other lines
+     * @param command        kubectl watch command
+     * @param <R>            result type
+     * @return future which is completed with the result of the first matching line
+     */
+    private <R> CompletableFuture<R> watch(int timeoutSeconds, Function<String, R> matcher, String... command) {
+        CompletableFuture<R> result = new CompletableFuture<>();
+        CompletableFuture<ProcessResult> process = ProcessExecutor.execute(null, line -> {
+            R value = matcher.apply(line);
+            if (value != null) {
+                result.complete(value);
+            }
+        }, CelleryUtils::printDebug, Collections.emptyMap(), timeoutSeconds, command);
+        process.whenComplete((processResult, error) -> result.completeExceptionally(error != null ? error :
+                new BallerinaException("Command " + String.join(" ", command) + " exited with exit code " +
+                        processResult.getExitCode() + " message: " + processResult.getStderr())));
+        // Stop watching once a matching line is received
+        result.whenComplete((value, error) -> process.cancel(true));
+        return result;
+    }
+
+    /**
+     * Get kubernetes resource.
+     *
+     * @param type  type of resource
+     * @param name  name of resource
+     * @param clazz class of the resource
+     * @param <T>   resource type
+     * @return resource or null if the resource is not found
+     */
+    private <T> T getResource(String type, String name, Class<T> clazz) {
+        String output;
+        try {
+            Map<String, String> environment = new HashMap<>();
+            output = CelleryUtils.readShellCommandOutput(null, msg -> { }, msg -> { }, environment,
+                    "kubectl", "get", type, name, "-o", "json");
+        } catch (BallerinaException ex) {
+            if (ex.getMessage() != null && ex.getMessage().contains(NOT_FOUND)) {
+                return null;
+            }
+            throw ex;
+        }
+        if (output.contains(NOT_FOUND)) {
+            return null;
+        }
+        try {
+            return Codec.readJson(output, clazz);
+        } catch (IOException e) {
+            throw new BallerinaException("Error while reading " + type + " " + name + ". " + e.getMessage());
+        }
+    }
+
+    /**
+     * List kubernetes resources of a type.
+     *
+     * @param type  type of resource
+     * @param clazz class of the resource list
+     * @param <T>   resource list type
+     * @return resource list
+     */
+    private <T> T listResources(String type, Class<T> clazz) {
+        String output = CelleryUtils.readShellCommandOutput(null, msg -> { }, msg -> { }, Collections.emptyMap(),
+                "kubectl", "get", type, "-o", "json");
+        try {
+            return Codec.readJson(output, clazz);
+        } catch (IOException e) {
+            throw new BallerinaException("Error while reading " + type + ". " + e.getMessage());
+        }
+    }
+}
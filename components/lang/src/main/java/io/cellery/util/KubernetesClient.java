@@ -19,23 +19,70 @@
 
 package io.cellery.util;
 
-import io.cellery.CelleryUtils;
+import io.cellery.CelleryUtils.Writer;
+import io.cellery.models.Cell;
+import io.cellery.models.Composite;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static io.cellery.CelleryConstants.CELL;
+import static io.cellery.CelleryConstants.KUBECTL;
+import static io.cellery.CelleryConstants.KUBERNETES_CLIENT_ENV_VAR;
+import static io.cellery.CelleryUtils.printDebug;
 
 /**
  * Cellery Utility methods.
  */
 public class KubernetesClient {
+    private static KubernetesEngine engine;
+
+    /**
+     * Get the Kubernetes engine shared by all the native functions running in this JVM. The in-process engine is
+     * used by default and kubectl is used if it is requested through CELLERY_KUBERNETES_CLIENT or if the in-process
+     * client cannot be created.
+     *
+     * @return kubernetes engine
+     */
+    public static synchronized KubernetesEngine getEngine() {
+        if (engine == null) {
+            engine = createEngine();
+            Runtime.getRuntime().addShutdownHook(new Thread(engine::close));
+        }
+        return engine;
+    }
+
+    private static KubernetesEngine createEngine() {
+        if (KUBECTL.equalsIgnoreCase(System.getenv(KUBERNETES_CLIENT_ENV_VAR))) {
+            return new KubectlEngine();
+        }
+        try {
+            return new Fabric8Engine(new DefaultKubernetesClient());
+        } catch (KubernetesClientException e) {
+            printDebug("Unable to create in-process Kubernetes client, falling back to kubectl. " + e.getMessage());
+            return new KubectlEngine();
+        }
+    }
+
     /**
      * Apply file.
      *
      * @param fileName File name
      */
     public static void apply(String fileName) {
-        CelleryUtils.executeShellCommand("kubectl apply -f  " + fileName, null,
-                CelleryUtils::printDebug, CelleryUtils::printWarning);
+        getEngine().apply(fileName);
+    }
+
+    /**
+     * Apply namespaced resources in a single server-side apply pass.
+     *
+     * @param resources resources to apply
+     */
+    public static void applyAll(List<? extends HasMetadata> resources) {
+        getEngine().applyAll(resources);
     }
 
     /**
@@ -47,56 +94,110 @@ public class KubernetesClient {
      * @param namespace namespace
      */
     public static void waitFor(String condition, int timeoutSeconds, String resourceName, String namespace) {
-        CelleryUtils.executeShellCommand("kubectl wait --for=condition=" + condition +
-                        " --timeout=" + timeoutSeconds + "s " +
-                        resourceName +
-                        " -n " + namespace,
-                null,
-                CelleryUtils::printDebug,
-                CelleryUtils::printWarning);
+        getEngine().waitFor(condition, timeoutSeconds, resourceName, namespace);
     }
 
     /**
-     * Get kubernetes resource.
+     * Wait for condition without blocking the caller. Instances awaited through the in-process engine share a single
+     * watch per resource type and namespace.
      *
-     * @param type type of resource
-     * @param name name of resource
-     * @return resource
+     * @param condition the condition that is being checked
+     * @param timeoutSeconds waiting time for the condition
+     * @param resourceName name of the resource
+     * @param namespace namespace
+     * @return future which is completed once the condition is met
      */
-    private static String getResource(String type, String name) {
-        String expectedException = "not found";
-        String output;
-        try {
-            Map<String, String> environment = new HashMap<>();
-            output = CelleryUtils.executeShellCommand(null, msg -> { }, msg -> { }, environment,
-                    "kubectl", "get", type, name, "-o", "json");
-        } catch (Exception ex) {
-            if (!ex.getMessage().contains(expectedException)) {
-                throw ex;
-            } else {
-                output = ex.getMessage();
-            }
-        }
-        return output;
+    public static CompletableFuture<Void> awaitCondition(String condition, int timeoutSeconds, String resourceName,
+                                                         String namespace) {
+        return getEngine().awaitCondition(condition, timeoutSeconds, resourceName, namespace);
+    }
+
+    /**
+     * Wait for a pod of a job to start without blocking the caller.
+     *
+     * @param jobName name of the job
+     * @param timeoutSeconds waiting time for the pod
+     * @param namespace namespace
+     * @return future which is completed with the name of the pod once it is running or has terminated
+     */
+    public static CompletableFuture<String> awaitJobPod(String jobName, int timeoutSeconds, String namespace) {
+        return getEngine().awaitJobPod(jobName, timeoutSeconds, namespace);
     }
 
     /**
-     * Get cells.
+     * Wait for a job to complete or fail without blocking the caller.
+     *
+     * @param jobName name of the job
+     * @param timeoutSeconds waiting time for the job
+     * @param namespace namespace
+     * @return future which is completed with true if the job completed and false if the job failed
+     */
+    public static CompletableFuture<Boolean> awaitJobCompletion(String jobName, int timeoutSeconds,
+                                                                String namespace) {
+        return getEngine().awaitJobCompletion(jobName, timeoutSeconds, namespace);
+    }
+
+    /**
+     * Stream the logs of a container until the container terminates.
+     *
+     * @param podName name of the pod
+     * @param container name of the container
+     * @param namespace namespace
+     * @param writer writer to which each line of the logs is written
+     */
+    public static void streamLogs(String podName, String container, String namespace, Writer writer) {
+        getEngine().streamLogs(podName, container, namespace, writer);
+    }
+
+    /**
+     * Get cell.
      *
      * @param instance instance name.
-     * @return cells
+     * @return cell or null if the instance is not available
      */
-    public static String getCells(String instance) {
-        return getResource("cells", instance);
+    public static Cell getCell(String instance) {
+        return getEngine().getCell(instance);
     }
 
     /**
-     * Get composites.
+     * Get composite.
      *
      * @param instance instance name
-     * @return composites
+     * @return composite or null if the instance is not available
      */
-    public static String getComposites(String instance) {
-        return getResource("composites", instance);
+    public static Composite getComposite(String instance) {
+        return getEngine().getComposite(instance);
+    }
+
+    /**
+     * List the cell instances.
+     *
+     * @return cell instances
+     */
+    public static List<Cell> getCells() {
+        return getEngine().getCells();
+    }
+
+    /**
+     * List the composite instances.
+     *
+     * @return composite instances
+     */
+    public static List<Composite> getComposites() {
+        return getEngine().getComposites();
+    }
+
+    /**
+     * Get a cell or composite instance.
+     *
+     * @param instance instance name
+     * @param kind     instance kind
+     * @return instance or null if the instance is not available
+     */
+    public static Composite getInstance(String instance, String kind) {
+        if (CELL.equals(kind)) {
+            return getCell(instance);
+        }
+        return getComposite(instance);
     }
 }
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.cellery.util;
+
+import io.cellery.CelleryUtils.Writer;
+import io.cellery.models.Cell;
+import io.cellery.models.Composite;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import org.ballerinalang.util.exceptions.BallerinaException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Backend used by {@link KubernetesClient} to talk to the Kubernetes API server.
+ */
+public interface KubernetesEngine {
+
+    /**
+     * Apply the resources in a file.
+     *
+     * @param fileName File name
+     */
+    void apply(String fileName);
+
+    /**
+     * Apply namespaced resources in a single server-side apply pass, in which the applied fields are owned by the
+     * Cellery field manager. Every resource is applied even if some of them fail.
+     *
+     * @param resources resources to apply
+     * @throws BallerinaException naming each resource which failed to apply
+     */
+    void applyAll(List<? extends HasMetadata> resources);
+
+    /**
+     * Wait for condition.
+     *
+     * @param condition      the condition that is being checked
+     * @param timeoutSeconds waiting time for the condition
+     * @param resourceName   name of the resource in type/name form
+     * @param namespace      namespace
+     */
+    default void waitFor(String condition, int timeoutSeconds, String resourceName, String namespace) {
+        try {
+            awaitCondition(condition, timeoutSeconds, resourceName, namespace).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BallerinaException("Interrupted while waiting for " + resourceName);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof BallerinaException) {
+                throw (BallerinaException) e.getCause();
+            }
+            throw new BallerinaException("Error while waiting for condition " + condition + " on " + resourceName +
+                    ". " + e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Wait for condition without blocking the caller.
+     *
+     * @param condition      the condition that is being checked
+     * @param timeoutSeconds waiting time for the condition
+     * @param resourceName   name of the resource in type/name form
+     * @param namespace      namespace
+     * @return future which is completed once the condition is met
+     */
+    CompletableFuture<Void> awaitCondition(String condition, int timeoutSeconds, String resourceName,
+                                           String namespace);
+
+    /**
+     * Get a cell instance.
+     *
+     * @param name instance name
+     * @return cell or null if the instance is not available
+     */
+    Cell getCell(String name);
+
+    /**
+     * Get a composite instance.
+     *
+     * @param name instance name
+     * @return composite or null if the instance is not available
+     */
+    Composite getComposite(String name);
+
+    /**
+     * List the cell instances.
+     *
+     * @return cell instances
+     */
+    List<Cell> getCells();
+
+    /**
+     * List the composite instances.
+     *
+     * @return composite instances
+     */
+    List<Composite> getComposites();
+
+    /**
+     * Wait for a pod of a job to start without blocking the caller.
+     *
+     * @param jobName        name of the job
+     * @param timeoutSeconds waiting time for the pod
+     * @param namespace      namespace
+     * @return future which is completed with the name of the pod once it is running or has terminated
+     */
+    CompletableFuture<String> awaitJobPod(String jobName, int timeoutSeconds, String namespace);
+
+    /**
+     * Wait for a job to complete or fail without blocking the caller.
+     *
+     * @param jobName        name of the job
+     * @param timeoutSeconds waiting time for the job
+     * @param namespace      namespace
+     * @return future which is completed with true if the job completed and false if the job failed
+     */
+    CompletableFuture<Boolean> awaitJobCompletion(String jobName, int timeoutSeconds, String namespace);
+
+    /**
+     * Stream the logs of a container until the container terminates.
+     *
+     * @param podName   name of the pod
+     * @param container name of the container
+     * @param namespace namespace
+     * @param writer    writer to which each line of the logs is written
+     */
+    void streamLogs(String podName, String container, String namespace, Writer writer);
+
+    /**
+     * Release the connections and watches held by the engine.
+     */
+    void close();
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.cellery.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of parsed YAML documents keyed by the SHA-256 digest of their contents. The files of the same image
+ * are read from a different working copy on every start, so the contents are used as the key instead of the path.
+ * The parsed tree is never handed out, and every read binds a new model from it, so that callers can freely modify
+ * the models they receive while each distinct document is parsed only once.
+ */
+public class ModelCache {
+    private final Map<String, JsonNode> documents;
+
+    public ModelCache(int capacity) {
+        documents = new LinkedHashMap<String, JsonNode>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, JsonNode> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Read a model from a YAML file.
+     *
+     * @param path path to the YAML file
+     * @param type model type
+     * @param <T>  model type
+     * @return new instance of the model, or null if the file is empty
+     * @throws IOException if reading or parsing the file fails
+     */
+    public <T> T read(Path path, Class<T> type) throws IOException {
+        byte[] content = Files.readAllBytes(path);
+        String digest = DigestUtils.sha256Hex(content);
+        JsonNode document;
+        synchronized (documents) {
+            document = documents.get(digest);
+        }
+        if (document == null) {
+            document = Codec.readYamlTree(content);
+            if (document == null) {
+                return null;
+            }
+            synchronized (documents) {
+                documents.put(digest, document);
+            }
+        }
+        if (document.isMissingNode()) {
+            return null;
+        }
+        return Codec.treeToValue(document, type);
+    }
+}
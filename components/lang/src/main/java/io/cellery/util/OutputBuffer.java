@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.cellery.util;
+
+/**
+ * Buffer which retains the last characters appended to it. The buffer grows as characters are appended until it
+ * reaches its maximum capacity, after which the oldest characters are dropped and the buffer is marked as truncated.
+ */
+class OutputBuffer {
+    // Largest array which can be allocated on common virtual machines
+    static final int UNBOUNDED = Integer.MAX_VALUE - 8;
+    private static final int INITIAL_CAPACITY = 256;
+    private final int maxCapacity;
+    private char[] buffer = new char[0];
+    private int start;
+    private int length;
+    private boolean truncated;
+
+    OutputBuffer(int maxCapacity) {
+        this.maxCapacity = maxCapacity;
+    }
+
+    synchronized void append(String value) {
+        int offset = Math.max(0, value.length() - maxCapacity);
+        ensureCapacity((int) Math.min(maxCapacity, (long) length + value.length() - offset));
+        truncated |= offset > 0;
+        for (int i = offset; i < value.length(); i++) {
+            buffer[(start + length) % buffer.length] = value.charAt(i);
+            if (length < buffer.length) {
+                length++;
+            } else {
+                start = (start + 1) % buffer.length;
+                truncated = true;
+            }
+        }
+    }
+
+    /**
+     * Check whether characters were dropped from the buffer.
+     *
+     * @return true if the buffer does not hold all the characters appended to it
+     */
+    synchronized boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * Get the number of characters the buffer can hold before it grows.
+     *
+     * @return current capacity
+     */
+    synchronized int capacity() {
+        return buffer.length;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= buffer.length) {
+            return;
+        }
+        char[] grown = new char[(int) Math.min(maxCapacity, Math.max(capacity,
+                Math.max(INITIAL_CAPACITY, buffer.length * 2L)))];
+        int end = Math.min(start + length, buffer.length);
+        System.arraycopy(buffer, start, grown, 0, end - start);
+        System.arraycopy(buffer, 0, grown, end - start, length - (end - start));
+        buffer = grown;
+        start = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder value = new StringBuilder(length);
+        int end = Math.min(start + length, buffer.length);
+        value.append(buffer, start, end - start);
+        value.append(buffer, 0, length - (end - start));
+        return value.toString();
+    }
+}
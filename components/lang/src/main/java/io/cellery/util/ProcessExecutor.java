@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.cellery.util;
+
+import io.cellery.CelleryUtils.Writer;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Executes processes asynchronously. The output of the processes is drained by a shared pool of threads. Unless the
+ * complete output is requested, only the tail of the output is retained so that long running and chatty processes
+ * do not exhaust memory, and the result records whether output was dropped. The exit code is collected once both
+ * output streams are closed, so that no thread other than the ones draining the output is held by a running process.
+ */
+public class ProcessExecutor {
+    // Maximum number of characters retained from each of the output streams of a process which is only logged
+    private static final int MAX_CAPTURED_OUTPUT = 1024 * 1024;
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "cellery-process-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final ScheduledExecutorService TIMEOUT_SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "cellery-process-timeout");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private ProcessExecutor() {
+    }
+
+    /**
+     * Execute a process retaining the tail of its output. The process is destroyed if the returned future is
+     * cancelled or the timeout elapses.
+     *
+     * @param workingDirectory working directory, or null to use the current working directory
+     * @param stdout           writer to which each line of stdout is written
+     * @param stderr           writer to which each line of stderr is written
+     * @param environment      environment variables to be added to the process environment
+     * @param timeoutSeconds   timeout in seconds, or zero to wait until the process exits
+     * @param command          command to execute
+     * @return future which completes with the result of the process once it exits
+     */
+    public static CompletableFuture<ProcessResult> execute(Path workingDirectory, Writer stdout, Writer stderr,
+                                                           Map<String, String> environment, long timeoutSeconds,
+                                                           String... command) {
+        return execute(workingDirectory, stdout, stderr, environment, timeoutSeconds, false, command);
+    }
+
+    /**
+     * Execute a process. The process is destroyed if the returned future is cancelled or the timeout elapses.
+     *
+     * @param workingDirectory working directory, or null to use the current working directory
+     * @param stdout           writer to which each line of stdout is written
+     * @param stderr           writer to which each line of stderr is written
+     * @param environment      environment variables to be added to the process environment
+     * @param timeoutSeconds   timeout in seconds, or zero to wait until the process exits
+     * @param captureAll       whether the complete output is retained instead of its tail, for output which is
+     *                         read by the caller
+     * @param command          command to execute
+     * @return future which completes with the result of the process once it exits
+     */
+    public static CompletableFuture<ProcessResult> execute(Path workingDirectory, Writer stdout, Writer stderr,
+                                                           Map<String, String> environment, long timeoutSeconds,
+                                                           boolean captureAll, String... command) {
+        ProcessBuilder processBuilder = new ProcessBuilder(command);
+        processBuilder.environment().putAll(environment);
+        if (workingDirectory != null) {
+            File workDirectory = workingDirectory.toFile();
+            if (workDirectory.exists()) {
+                processBuilder.directory(workDirectory);
+            }
+        }
+        CompletableFuture<ProcessResult> result = new CompletableFuture<>();
+        Process process;
+        try {
+            process = processBuilder.start();
+        } catch (IOException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+        int maxCapturedOutput = captureAll ? OutputBuffer.UNBOUNDED : MAX_CAPTURED_OUTPUT;
+        OutputBuffer stdOut = new OutputBuffer(maxCapturedOutput);
+        OutputBuffer stdErr = new OutputBuffer(maxCapturedOutput);
+        CompletableFuture<Void> outputGobbler = CompletableFuture.runAsync(
+                new StreamGobbler(process.getInputStream(), msg -> {
+                    stdOut.append(msg);
+                    stdout.writeMessage(msg);
+                }), EXECUTOR);
+        CompletableFuture<Void> errorGobbler = CompletableFuture.runAsync(
+                new StreamGobbler(process.getErrorStream(), msg -> {
+                    stdErr.append(msg);
+                    stderr.writeMessage(msg);
+                }), EXECUTOR);
+        // The output streams are closed when the process exits, after which waiting for the exit code is brief
+        CompletableFuture.allOf(outputGobbler, errorGobbler).whenCompleteAsync((ignored, error) -> {
+            try {
+                int exitCode = process.waitFor();
+                result.complete(new ProcessResult(exitCode, stdOut.toString(), stdErr.toString(),
+                        stdOut.isTruncated(), stdErr.isTruncated()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result.completeExceptionally(e);
+            }
+        }, EXECUTOR);
+        if (timeoutSeconds > 0) {
+            ScheduledFuture<?> timeout = TIMEOUT_SCHEDULER.schedule(() -> result.completeExceptionally(
+                    new TimeoutException("Command " + String.join(" ", command) + " timed out after " +
+                            timeoutSeconds + " seconds")), timeoutSeconds, TimeUnit.SECONDS);
+            result.whenComplete((processResult, error) -> timeout.cancel(false));
+        }
+        // Cancellation and timeouts destroy the process
+        result.whenComplete((processResult, error) -> {
+            if (error != null) {
+                process.destroyForcibly();
+            }
+        });
+        return result;
+    }
+
+    /**
+     * StreamGobbler to handle process output.
+     */
+    private static class StreamGobbler implements Runnable {
+        private InputStream inputStream;
+        private Consumer<String> consumer;
+
+        StreamGobbler(InputStream inputStream, Consumer<String> consumer) {
+            this.inputStream = inputStream;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void run() {
+            new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)).lines()
+                    .forEach(consumer);
+        }
+    }
+}
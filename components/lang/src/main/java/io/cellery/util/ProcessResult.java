@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.cellery.util;
+
+import lombok.Data;
+
+/**
+ * Result of a completed process. Unless the complete output was requested, only the tail of the output of the
+ * process is captured and the output is marked as truncated if characters were dropped.
+ */
+@Data
+public class ProcessResult {
+    private final int exitCode;
+    private final String stdout;
+    private final String stderr;
+    private final boolean stdoutTruncated;
+    private final boolean stderrTruncated;
+
+    /**
+     * Check whether the process exited successfully.
+     *
+     * @return true if the exit code is zero
+     */
+    public boolean isSuccessful() {
+        return exitCode == 0;
+    }
+}
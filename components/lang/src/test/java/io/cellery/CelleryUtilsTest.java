@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.cellery;
+
+import org.apache.commons.io.FileUtils;
+import org.ballerinalang.util.exceptions.BallerinaException;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Tests for the Cellery utilities.
+ */
+public class CelleryUtilsTest {
+    private Path tempDir;
+
+    @BeforeMethod
+    public void createTempDir() throws IOException {
+        tempDir = Files.createTempDirectory("cellery-utils");
+    }
+
+    @AfterMethod
+    public void deleteTempDir() throws IOException {
+        FileUtils.deleteDirectory(tempDir.toFile());
+    }
+
+    @Test
+    public void unzip() throws IOException {
+        Path zip = createZip("image.zip", "src/hello/hello.bal", "artifacts/cellery/metadata.json");
+        Path destination = tempDir.resolve("extracted");
+        CelleryUtils.unzip(zip.toString(), destination.toString());
+        Assert.assertEquals(read(destination.resolve("src/hello/hello.bal")), "src/hello/hello.bal");
+        Assert.assertEquals(read(destination.resolve("artifacts/cellery/metadata.json")),
+                "artifacts/cellery/metadata.json");
+    }
+
+    @Test
+    public void keepModificationTimesOfEntries() throws IOException {
+        Path zip = tempDir.resolve("image.zip");
+        FileTime lastModified = FileTime.fromMillis(1571212344000L);
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(Files.newOutputStream(zip))) {
+            ZipEntry zipEntry = new ZipEntry("artifacts/cellery/metadata.json");
+            zipEntry.setLastModifiedTime(lastModified);
+            zipOutputStream.putNextEntry(zipEntry);
+            zipOutputStream.write("{}".getBytes(StandardCharsets.UTF_8));
+            zipOutputStream.closeEntry();
+        }
+        Path destination = tempDir.resolve("extracted");
+        CelleryUtils.unzip(zip.toString(), destination.toString());
+        Assert.assertEquals(Files.getLastModifiedTime(destination.resolve("artifacts/cellery/metadata.json")),
+                lastModified);
+    }
+
+    @Test
+    public void rejectEntriesOutsideDestination() throws IOException {
+        Path zip = createZip("image.zip", "src/hello/hello.bal", "../../escaped.txt");
+        Path destination = tempDir.resolve("a").resolve("extracted");
+        try {
+            CelleryUtils.unzip(zip.toString(), destination.toString());
+            Assert.fail("Extracted an entry outside the destination");
+        } catch (BallerinaException e) {
+            Assert.assertTrue(e.getMessage().startsWith("Invalid entry ../../escaped.txt"), e.getMessage());
+        }
+        Assert.assertFalse(Files.exists(tempDir.resolve("escaped.txt")));
+        // Entries are validated before any entry is extracted
+        Assert.assertFalse(Files.exists(destination.resolve("src/hello/hello.bal")));
+    }
+
+    @Test
+    public void rejectEntriesInSiblingDirectories() throws IOException {
+        Path zip = createZip("image.zip", "../extracted-sibling/escaped.txt");
+        Path destination = tempDir.resolve("extracted");
+        Assert.expectThrows(BallerinaException.class, () -> CelleryUtils.unzip(zip.toString(),
+                destination.toString()));
+        Assert.assertFalse(Files.exists(tempDir.resolve("extracted-sibling")));
+    }
+
+    /**
+     * Create a zip file with an entry for each name, whose content is the name of the entry.
+     */
+    private Path createZip(String fileName, String... entryNames) throws IOException {
+        Path zip = tempDir.resolve(fileName);
+        try (OutputStream outputStream = Files.newOutputStream(zip);
+             ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)) {
+            for (String entryName : entryNames) {
+                zipOutputStream.putNextEntry(new ZipEntry(entryName));
+                zipOutputStream.write(entryName.getBytes(StandardCharsets.UTF_8));
+                zipOutputStream.closeEntry();
+            }
+        }
+        return zip;
+    }
+
+    private static String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.cellery.util;
+
+import io.cellery.models.APIDefinition;
+import org.ballerinalang.util.exceptions.BallerinaException;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests for reading the resources of API specifications. The resources extracted from swagger 2 specifications are
+ * compared with the resources read with the swagger parser, while OpenAPI 3 specifications are only read by the
+ * extractor.
+ */
+public class ApiDefinitionReaderTest {
+
+    @DataProvider(name = "swaggerSpecs")
+    public Object[][] getSwaggerSpecs() {
+        return new Object[][]{
+                {"petstore.json"}, {"petstore.yaml"},
+                {"root-base-path.json"}, {"root-base-path.yaml"},
+                {"null-operations.json"}, {"null-operations.yaml"}
+        };
+    }
+
+    @Test(dataProvider = "swaggerSpecs")
+    public void extractSameResourcesAsParser(String spec) throws IOException, URISyntaxException {
+        List<APIDefinition> resources = ApiDefinitionReader.extract(getSpecPath(spec));
+        Assert.assertNotNull(resources);
+        Assert.assertEquals(resources, ApiDefinitionReader.parse(getSpecPath(spec)));
+    }
+
+    @Test
+    public void extractResources() throws IOException, URISyntaxException {
+        List<APIDefinition> expected = Arrays.asList(
+                new APIDefinition("/v1/pets", "GET"),
+                new APIDefinition("/v1/pets", "POST"),
+                new APIDefinition("/v1/pets/{petId}", "GET"),
+                new APIDefinition("/v1/pets/{petId}", "PUT"),
+                new APIDefinition("/v1/pets/{petId}", "POST"),
+                new APIDefinition("/v1/pets/{petId}", "DELETE"),
+                new APIDefinition("/v1/pets/{petId}", "PATCH"),
+                new APIDefinition("/v1/pets/{petId}", "HEAD"),
+                new APIDefinition("/v1/pets/{petId}", "OPTIONS"));
+        Assert.assertEquals(ApiDefinitionReader.extract(getSpecPath("petstore.json")), expected);
+        Assert.assertEquals(ApiDefinitionReader.extract(getSpecPath("petstore.yaml")), expected);
+    }
+
+    @Test
+    public void extractResourcesWithRootBasePath() throws IOException, URISyntaxException {
+        Assert.assertEquals(ApiDefinitionReader.extract(getSpecPath("root-base-path.yaml")), Arrays.asList(
+                new APIDefinition("/health", "GET"),
+                new APIDefinition("/status", "PUT")));
+    }
+
+    @Test
+    public void ignoreNullOperations() throws IOException, URISyntaxException {
+        Assert.assertEquals(ApiDefinitionReader.extract(getSpecPath("null-operations.yaml")),
+                Collections.singletonList(new APIDefinition("/orders", "POST")));
+    }
+
+    @Test
+    public void leavePathItemReferencesToParser() throws IOException, URISyntaxException {
+        // The resources of swagger 2 specifications which the extractor does not support are read with the parser
+        Assert.assertNull(ApiDefinitionReader.extract(getSpecPath("ref-path-item.json")));
+    }
+
+    @Test
+    public void extractOpenApiResourcesWithServerVariables() throws IOException, URISyntaxException {
+        Assert.assertEquals(ApiDefinitionReader.extract(getSpecPath("openapi-server-variables.yaml")), Arrays.asList(
+                new APIDefinition("/pets/v1/pets", "GET"),
+                new APIDefinition("/pets/v1/pets", "TRACE"),
+                new APIDefinition("/pets/v1/pets/{petId}", "PUT")));
+    }
+
+    @Test
+    public void extractOpenApiResourcesWithRelativeServer() throws IOException, URISyntaxException {
+        Assert.assertEquals(ApiDefinitionReader.extract(getSpecPath("openapi-relative-server.json")),
+                Collections.singletonList(new APIDefinition("/api/v2/orders", "POST")));
+        Assert.assertEquals(ApiDefinitionReader.extract(getSpecPath("openapi-root-server.yaml")),
+                Collections.singletonList(new APIDefinition("/health", "GET")));
+    }
+
+    @Test(expectedExceptions = BallerinaException.class)
+    public void rejectOpenApiPathItemReferences() throws IOException, URISyntaxException {
+        // There is no parser to fall back to for OpenAPI 3 specifications
+        ApiDefinitionReader.extract(getSpecPath("openapi-ref-path-item.yaml"));
+    }
+
+    private static Path getSpecPath(String spec) throws URISyntaxException {
+        return Paths.get(ApiDefinitionReaderTest.class.getResource("/api-definitions/" + spec).toURI());
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.cellery.util;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Tests for the index of the fingerprints of cell image builds.
+ */
+public class BuildIndexTest {
+    private Path tempDir;
+    private Path indexPath;
+
+    @BeforeMethod
+    public void createTempDir() throws IOException {
+        tempDir = Files.createTempDirectory("build-index");
+        indexPath = tempDir.resolve("target").resolve(".build-index.json");
+    }
+
+    @AfterMethod
+    public void deleteTempDir() throws IOException {
+        FileUtils.deleteDirectory(tempDir.toFile());
+    }
+
+    @Test
+    public void fingerprintSeparatesValues() {
+        Assert.assertEquals(BuildIndex.fingerprint("a", "bc"), BuildIndex.fingerprint("a", "bc"));
+        Assert.assertNotEquals(BuildIndex.fingerprint("a", "bc"), BuildIndex.fingerprint("ab", "c"));
+        Assert.assertNotEquals(BuildIndex.fingerprint("a"), BuildIndex.fingerprint("a", ""));
+    }
+
+    @Test
+    public void fingerprintIncludesGeneratorVersion() {
+        // A fingerprint of the values alone would be the plain SHA-256 digest of "a\0"
+        Assert.assertNotEquals(BuildIndex.fingerprint("a"), DigestUtils.sha256Hex("a\0"));
+    }
+
+    @Test
+    public void reuseOutputOfUnchangedInputs() throws IOException {
+        BuildIndex index = BuildIndex.load(indexPath);
+        Assert.assertNull(index.getOutput("docker:hello", "inputs"));
+        index.update("docker:hello", "inputs", "sha256:1");
+        index.save();
+
+        BuildIndex reloaded = BuildIndex.load(indexPath);
+        Assert.assertEquals(reloaded.getOutput("docker:hello", "inputs"), "sha256:1");
+        Assert.assertNull(reloaded.getOutput("docker:hello", "changed"));
+        Assert.assertNull(reloaded.getOutput("docker:other", "inputs"));
+    }
+
+    @Test
+    public void detectModifiedOutput() throws IOException {
+        Path output = write(tempDir.resolve("target/cellery/hello.yaml"), "kind: Cell");
+        BuildIndex index = BuildIndex.load(indexPath);
+        index.update(output, "inputs");
+        index.save();
+
+        BuildIndex reloaded = BuildIndex.load(indexPath);
+        Assert.assertTrue(reloaded.isUpToDate(output, "inputs"));
+        Assert.assertFalse(reloaded.isUpToDate(output, "changed"));
+        write(output, "kind: Composite");
+        Assert.assertFalse(reloaded.isUpToDate(output, "inputs"));
+        Files.delete(output);
+        Assert.assertFalse(reloaded.isUpToDate(output, "inputs"));
+    }
+
+    @Test
+    public void ignoreUnreadableIndex() throws IOException {
+        write(indexPath, "{not json");
+        BuildIndex index = BuildIndex.load(indexPath);
+        Assert.assertNull(index.getOutput("docker:hello", "inputs"));
+        index.update("docker:hello", "inputs", "sha256:1");
+        index.save();
+        Assert.assertEquals(BuildIndex.load(indexPath).getOutput("docker:hello", "inputs"), "sha256:1");
+    }
+
+    @Test
+    public void disabledIndexIsNeverUpToDate() throws IOException {
+        BuildIndex index = BuildIndex.disabled();
+        index.update("docker:hello", "inputs", "sha256:1");
+        Assert.assertNull(index.getOutput("docker:hello", "inputs"));
+        index.save();
+        Assert.assertFalse(Files.exists(indexPath));
+    }
+
+    @Test
+    public void pruneOutputsOfPreviousBuild() throws IOException {
+        Path directory = tempDir.resolve("target/resources");
+        Path kept = write(directory.resolve("hello.json"), "{}");
+        Path keptDirectory = directory.resolve("protos");
+        write(keptDirectory.resolve("hello.proto"), "syntax");
+        Path pending = write(directory.resolve("pending.json"), "{}");
+        Path stale = write(directory.resolve("stale.json"), "{}");
+        Path staleDirectory = directory.resolve("stale");
+        write(staleDirectory.resolve("stale.proto"), "syntax");
+
+        BuildIndex.recordPendingOutput(pending);
+        BuildIndex index = BuildIndex.load(indexPath);
+        index.recordOutput(kept);
+        index.recordOutput(keptDirectory);
+        index.pruneOutputs(directory);
+
+        Assert.assertTrue(Files.exists(kept));
+        Assert.assertTrue(Files.exists(keptDirectory.resolve("hello.proto")));
+        Assert.assertTrue(Files.exists(pending));
+        Assert.assertFalse(Files.exists(stale));
+        Assert.assertFalse(Files.exists(staleDirectory));
+        Assert.assertTrue(Files.exists(directory));
+    }
+
+    @Test
+    public void scopeRecordedOutputsToBuild() throws IOException {
+        Path directory = tempDir.resolve("target/cellery");
+        Path output = write(directory.resolve("hello.yaml"), "kind: Cell");
+        Path pending = write(directory.resolve("pending.json"), "{}");
+        BuildIndex.recordPendingOutput(pending);
+        BuildIndex first = BuildIndex.load(indexPath);
+        first.recordOutput(output);
+
+        // Outputs of the first build are not kept by the next build
+        BuildIndex.load(indexPath).pruneOutputs(directory);
+        Assert.assertFalse(Files.exists(output));
+        Assert.assertFalse(Files.exists(pending));
+    }
+
+    @Test
+    public void fingerprintDirectoryWithFilter() throws IOException {
+        Path directory = tempDir.resolve("context");
+        write(directory.resolve("Dockerfile"), "FROM scratch");
+        write(directory.resolve("app/main.go"), "package main");
+        String digest = BuildIndex.fingerprintDirectory(directory, path -> true);
+        String filtered = BuildIndex.fingerprintDirectory(directory, path -> !path.startsWith("app"));
+
+        write(directory.resolve("app/main.go"), "package app");
+        Assert.assertNotEquals(BuildIndex.fingerprintDirectory(directory, path -> true), digest);
+        Assert.assertEquals(BuildIndex.fingerprintDirectory(directory, path -> !path.startsWith("app")), filtered);
+
+        Files.move(directory.resolve("Dockerfile"), directory.resolve("Dockerfile.old"));
+        Assert.assertNotEquals(BuildIndex.fingerprintDirectory(directory, path -> !path.startsWith("app")),
+                filtered);
+    }
+
+    private static Path write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        return Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.cellery.util;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Tests for the digests of Docker build contexts.
+ */
+public class DockerBuildContextTest {
+    private Path contextDir;
+
+    @BeforeMethod
+    public void createContextDir() throws IOException {
+        contextDir = Files.createTempDirectory("docker-context");
+        write("Dockerfile", "FROM scratch\nCOPY app /app");
+        write("app/main.go", "package main");
+        write("logs/build.log", "first");
+        write("docs/README.md", "docs");
+    }
+
+    @AfterMethod
+    public void deleteContextDir() throws IOException {
+        FileUtils.deleteDirectory(contextDir.toFile());
+    }
+
+    @Test
+    public void digestChangesWithContext() throws IOException {
+        String digest = DockerBuildContext.digest(contextDir);
+        Assert.assertEquals(DockerBuildContext.digest(contextDir), digest);
+        write("app/main.go", "package app");
+        Assert.assertNotEquals(DockerBuildContext.digest(contextDir), digest);
+        digest = DockerBuildContext.digest(contextDir);
+        write("Dockerfile", "FROM alpine\nCOPY app /app");
+        Assert.assertNotEquals(DockerBuildContext.digest(contextDir), digest);
+    }
+
+    @Test
+    public void ignoreExcludedFiles() throws IOException {
+        write(".dockerignore", "# Build outputs\n\n/logs\n*.md\n");
+        String digest = DockerBuildContext.digest(contextDir);
+        write("logs/build.log", "second");
+        write("logs/nested/debug.log", "debug");
+        Assert.assertEquals(DockerBuildContext.digest(contextDir), digest);
+        write("README.md", "readme");
+        Assert.assertEquals(DockerBuildContext.digest(contextDir), digest);
+        // Patterns without a directory match only at the root of the context
+        write("docs/README.md", "changed");
+        Assert.assertNotEquals(DockerBuildContext.digest(contextDir), digest);
+    }
+
+    @Test
+    public void alwaysIncludeDockerfileAndDockerIgnore() throws IOException {
+        write(".dockerignore", "Dockerfile\n.dockerignore\n");
+        String digest = DockerBuildContext.digest(contextDir);
+        write("Dockerfile", "FROM alpine\nCOPY app /app");
+        Assert.assertNotEquals(DockerBuildContext.digest(contextDir), digest);
+        digest = DockerBuildContext.digest(contextDir);
+        write(".dockerignore", "Dockerfile\n.dockerignore\nlogs\n");
+        Assert.assertNotEquals(DockerBuildContext.digest(contextDir), digest);
+    }
+
+    @Test
+    public void includeEverythingWhenDockerIgnoreHasExceptions() throws IOException {
+        write(".dockerignore", "logs\n!logs/build.log\n");
+        String digest = DockerBuildContext.digest(contextDir);
+        write("logs/build.log", "second");
+        Assert.assertNotEquals(DockerBuildContext.digest(contextDir), digest);
+        digest = DockerBuildContext.digest(contextDir);
+        // Files which Docker would exclude are included too, which only causes unnecessary rebuilds
+        write("logs/other.log", "other");
+        Assert.assertNotEquals(DockerBuildContext.digest(contextDir), digest);
+    }
+
+    private void write(String relativePath, String content) throws IOException {
+        Path file = contextDir.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.cellery.util;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Tests for the cache of extracted cell images.
+ */
+public class ExtractedImageCacheTest {
+    private static final String BAL = "src/hello/hello.bal";
+    private static final String YAML = "artifacts/cellery/hello.yaml";
+    private static final String METADATA = "artifacts/cellery/metadata.json";
+    private Path tempDir;
+    private Path cacheDir;
+    private Path workingDir;
+
+    @BeforeMethod
+    public void createTempDir() throws IOException {
+        tempDir = Files.createTempDirectory("image-cache");
+        cacheDir = tempDir.resolve("image-cache");
+        workingDir = tempDir.resolve("tmp");
+    }
+
+    @AfterMethod
+    public void deleteTempDir() throws IOException {
+        FileUtils.deleteDirectory(tempDir.toFile());
+    }
+
+    @Test
+    public void extractImageOnce() throws IOException {
+        ExtractedImageCache cache = new ExtractedImageCache(cacheDir, workingDir, Long.MAX_VALUE);
+        Path zip = createImage("hello", "1");
+        ExtractedImageCache.Lease first = cache.acquire("myorg", "hello", "1.0.0", zip);
+        ExtractedImageCache.Lease second = cache.acquire("myorg", "hello", "1.0.0", zip);
+        Assert.assertEquals(getEntries("hello").size(), 1);
+        Assert.assertNotEquals(first.getPath(), second.getPath());
+        Assert.assertEquals(read(first.getPath().resolve(BAL)), read(second.getPath().resolve(BAL)));
+        first.close();
+        second.close();
+        Assert.assertFalse(Files.exists(first.getPath()));
+        Assert.assertFalse(Files.exists(second.getPath()));
+        Assert.assertEquals(getEntries("hello").size(), 1);
+    }
+
+    @Test
+    public void extractImageAgainWhenZipChanges() throws IOException {
+        ExtractedImageCache cache = new ExtractedImageCache(cacheDir, workingDir, Long.MAX_VALUE);
+        Path zip = createImage("hello", "1");
+        cache.acquire("myorg", "hello", "1.0.0", zip).close();
+        createImage("hello", "2");
+        Files.setLastModifiedTime(zip, FileTime.fromMillis(Files.getLastModifiedTime(zip).toMillis() + 2000));
+        try (ExtractedImageCache.Lease lease = cache.acquire("myorg", "hello", "1.0.0", zip)) {
+            Assert.assertEquals(read(lease.getPath().resolve(BAL)), "// 2");
+        }
+        Assert.assertEquals(getEntries("hello").size(), 2);
+    }
+
+    @Test
+    public void isolateWorkingCopies() throws IOException {
+        ExtractedImageCache cache = new ExtractedImageCache(cacheDir, workingDir, Long.MAX_VALUE);
+        Path zip = createImage("hello", "1");
+        try (ExtractedImageCache.Lease lease = cache.acquire("myorg", "hello", "1.0.0", zip);
+             ExtractedImageCache.Lease readOnlyLease = cache.acquireReadOnly("myorg", "hello", "1.0.0", zip)) {
+            Files.write(lease.getPath().resolve(BAL), "\npublic function main() {}".getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.APPEND);
+            Files.write(lease.getPath().resolve(YAML), "kind: Composite".getBytes(StandardCharsets.UTF_8));
+            Assert.assertEquals(read(readOnlyLease.getPath().resolve(BAL)), "// 1");
+            Assert.assertEquals(read(readOnlyLease.getPath().resolve(YAML)), "kind: Cell");
+            // Files which are not modified are linked to the cache entry
+            Assert.assertTrue(Files.isSameFile(lease.getPath().resolve(METADATA),
+                    readOnlyLease.getPath().resolve(METADATA)));
+        }
+    }
+
+    @Test
+    public void useCacheEntryForReadOnlyLeases() throws IOException {
+        ExtractedImageCache cache = new ExtractedImageCache(cacheDir, workingDir, Long.MAX_VALUE);
+        Path zip = createImage("hello", "1");
+        ExtractedImageCache.Lease lease = cache.acquireReadOnly("myorg", "hello", "1.0.0", zip);
+        Assert.assertEquals(getEntries("hello"), Collections.singletonList(lease.getPath()));
+        lease.close();
+        Assert.assertTrue(Files.isDirectory(lease.getPath()));
+    }
+
+    @Test
+    public void evictEntriesWhichAreNotInUse() throws IOException {
+        ExtractedImageCache cache = new ExtractedImageCache(cacheDir, workingDir, 0);
+        ExtractedImageCache.Lease hello = cache.acquire("myorg", "hello", "1.0.0", createImage("hello", "1"));
+        try (ExtractedImageCache.Lease world = cache.acquire("myorg", "world", "1.0.0", createImage("world", "1"))) {
+            // Entries in use are not evicted
+            Assert.assertEquals(getEntries("hello").size(), 1);
+            Assert.assertEquals(getEntries("world").size(), 1);
+            Path helloEntry = getEntries("hello").get(0);
+            hello.close();
+            cache.acquireReadOnly("myorg", "world", "1.0.0", createImage("world", "1")).close();
+            Assert.assertTrue(getEntries("hello").isEmpty());
+            Assert.assertFalse(Files.exists(helloEntry.resolveSibling(helloEntry.getFileName() + ".lock")));
+            Assert.assertEquals(getEntries("world").size(), 1);
+            Assert.assertTrue(Files.isDirectory(world.getPath()));
+        }
+    }
+
+    @Test
+    public void copyOnlyModifiedFiles() {
+        Assert.assertTrue(ExtractedImageCache.isModified(Paths.get(BAL)));
+        Assert.assertTrue(ExtractedImageCache.isModified(Paths.get(YAML)));
+        Assert.assertFalse(ExtractedImageCache.isModified(Paths.get(METADATA)));
+        Assert.assertFalse(ExtractedImageCache.isModified(Paths.get("artifacts/ref/reference.json")));
+        Assert.assertFalse(ExtractedImageCache.isModified(Paths.get("artifacts/cellery/hello.bal")));
+    }
+
+    private Path createImage(String name, String content) throws IOException {
+        Path zip = tempDir.resolve(name + ".zip");
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(Files.newOutputStream(zip))) {
+            addEntry(zipOutputStream, BAL, "// " + content);
+            addEntry(zipOutputStream, YAML, "kind: Cell");
+            addEntry(zipOutputStream, METADATA, "{}");
+            addEntry(zipOutputStream, "artifacts/ref/reference.json", "{}");
+        }
+        return zip;
+    }
+
+    private static void addEntry(ZipOutputStream zipOutputStream, String name, String content) throws IOException {
+        zipOutputStream.putNextEntry(new ZipEntry(name));
+        zipOutputStream.write(content.getBytes(StandardCharsets.UTF_8));
+        zipOutputStream.closeEntry();
+    }
+
+    private List<Path> getEntries(String name) throws IOException {
+        Path versionDir = cacheDir.resolve(Paths.get("myorg", name, "1.0.0"));
+        if (!Files.isDirectory(versionDir)) {
+            return Collections.emptyList();
+        }
+        try (Stream<Path> paths = Files.list(versionDir)) {
+            return paths.filter(Files::isDirectory).collect(Collectors.toList());
+        }
+    }
+
+    private static String read(Path path) throws IOException {
+        return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+    }
+}
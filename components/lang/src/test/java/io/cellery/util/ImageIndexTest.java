@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.cellery.util;
+
+import io.cellery.models.ComponentMeta;
+import io.cellery.models.DependencyMeta;
+import io.cellery.models.Meta;
+import org.apache.commons.io.FileUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Tests for reading the image index. The index in the test data of the CLI is written by the CLI, so these tests
+ * verify that the runtime reads what the CLI writes.
+ */
+public class ImageIndexTest {
+    private static final Path TESTDATA = Paths.get(System.getProperty("image.index.testdata",
+            "../cli/pkg/image/testdata"));
+    private static final Path INDEX = TESTDATA.resolve("image-index.bin");
+    private static final Path METADATA = TESTDATA.resolve("metadata.json");
+    private static final Path REFERENCE = TESTDATA.resolve("reference.json");
+    private static final String REFERENCE_ENTRY = "artifacts/ref/reference.json";
+    private Path tempDir;
+
+    @BeforeMethod
+    public void createTempDir() throws IOException {
+        tempDir = Files.createTempDirectory("image-index");
+    }
+
+    @AfterMethod
+    public void deleteTempDir() throws IOException {
+        FileUtils.deleteDirectory(tempDir.toFile());
+    }
+
+    @Test
+    public void readMetadataWrittenByCli() {
+        Assert.assertEquals(ImageIndex.readMetadata(INDEX, METADATA), createMetadata());
+    }
+
+    @Test
+    public void readReferenceWrittenByCli() throws IOException {
+        Map<String, String> reference = readReference(Files.readAllBytes(REFERENCE));
+        Assert.assertNotNull(reference);
+        Assert.assertEquals(new ArrayList<>(reference.keySet()),
+                Arrays.asList("employee_host", "employee_api_url", "replicas", "gateway"));
+        Assert.assertEquals(reference.get("employee_host"), "{{instance_name}}--employee-service");
+        Assert.assertEquals(reference.get("employee_api_url"),
+                "http://{{instance_name}}--gateway-service:80/employee");
+        Assert.assertEquals(reference.get("replicas"), "2");
+        Assert.assertEquals(reference.get("gateway"), "{\"port\":80}");
+    }
+
+    @Test
+    public void readMetadataModifiedAfterIndex() throws IOException {
+        Path index = Files.copy(INDEX, tempDir.resolve(INDEX.getFileName()));
+        Path metadata = Files.copy(METADATA, tempDir.resolve(METADATA.getFileName()));
+        // The metadata is hashed, and its contents are unchanged
+        setModifiedAfter(metadata, index);
+        Assert.assertEquals(ImageIndex.readMetadata(index, metadata), createMetadata());
+    }
+
+    @Test
+    public void ignoreIndexOfEditedMetadata() throws IOException {
+        Path index = Files.copy(INDEX, tempDir.resolve(INDEX.getFileName()));
+        Path metadata = tempDir.resolve(METADATA.getFileName());
+        String content = new String(Files.readAllBytes(METADATA), StandardCharsets.UTF_8);
+        // An edit which does not change the size of the metadata
+        Files.write(metadata, content.replaceFirst("1\\.0\\.0", "1.0.1").getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals(Files.size(metadata), Files.size(METADATA));
+        setModifiedAfter(metadata, index);
+        Assert.assertNull(ImageIndex.readMetadata(index, metadata));
+    }
+
+    @Test
+    public void ignoreIndexOfResizedMetadata() throws IOException {
+        Path metadata = tempDir.resolve(METADATA.getFileName());
+        Files.write(metadata, (new String(Files.readAllBytes(METADATA), StandardCharsets.UTF_8) + "\n")
+                .getBytes(StandardCharsets.UTF_8));
+        Path index = Files.copy(INDEX, tempDir.resolve(INDEX.getFileName()));
+        // A change of the size is detected even if the metadata was not modified after the index
+        Files.setLastModifiedTime(metadata, Files.getLastModifiedTime(index));
+        Assert.assertNull(ImageIndex.readMetadata(index, metadata));
+    }
+
+    @Test
+    public void ignoreIndexOfEditedReference() throws IOException {
+        // An edit which does not change the size of the reference
+        String content = new String(Files.readAllBytes(REFERENCE), StandardCharsets.UTF_8).replace(":80", ":81");
+        Assert.assertNull(readReference(content.getBytes(StandardCharsets.UTF_8)));
+        Assert.assertNull(readReference(Arrays.copyOf(Files.readAllBytes(REFERENCE), 100)));
+        Assert.assertNull(readReference(null));
+    }
+
+    @Test
+    public void ignoreTruncatedIndex() throws IOException {
+        byte[] content = Files.readAllBytes(INDEX);
+        Path index = Files.write(tempDir.resolve(INDEX.getFileName()), Arrays.copyOf(content, content.length - 4));
+        Assert.assertNull(ImageIndex.readMetadata(index, METADATA));
+    }
+
+    @Test
+    public void writeAndReadIndex() throws IOException {
+        Path metadata = Files.copy(METADATA, tempDir.resolve(METADATA.getFileName()));
+        Path index = tempDir.resolve(INDEX.getFileName());
+        Map<String, String> reference = new LinkedHashMap<>();
+        reference.put("employee_host", "{{instance_name}}--employee-service");
+        ImageIndex.write(index, createMetadata(), Files.readAllBytes(metadata), reference, null);
+        Assert.assertEquals(ImageIndex.readMetadata(index, metadata), createMetadata());
+        Path zip = createZip(null);
+        try (ZipFile zipFile = new ZipFile(zip.toFile());
+             InputStream inputStream = Files.newInputStream(index)) {
+            Assert.assertEquals(ImageIndex.readReference(inputStream, zipFile, null), reference);
+        }
+    }
+
+    /**
+     * Read the reference from the index written by the CLI as part of an image with the given reference.json.
+     */
+    private Map<String, String> readReference(byte[] referenceJson) throws IOException {
+        Path zip = createZip(referenceJson);
+        try (ZipFile zipFile = new ZipFile(zip.toFile());
+             InputStream inputStream = Files.newInputStream(INDEX)) {
+            return ImageIndex.readReference(inputStream, zipFile, zipFile.getEntry(REFERENCE_ENTRY));
+        }
+    }
+
+    private Path createZip(byte[] referenceJson) throws IOException {
+        Path zip = Files.createTempFile(tempDir, "image", ".zip");
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(Files.newOutputStream(zip))) {
+            if (referenceJson != null) {
+                zipOutputStream.putNextEntry(new ZipEntry(REFERENCE_ENTRY));
+                zipOutputStream.write(referenceJson);
+                zipOutputStream.closeEntry();
+            }
+            zipOutputStream.putNextEntry(new ZipEntry("artifacts/cellery/metadata.json"));
+            zipOutputStream.write(Files.readAllBytes(METADATA));
+            zipOutputStream.closeEntry();
+        }
+        return zip;
+    }
+
+    private static void setModifiedAfter(Path file, Path other) throws IOException {
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(other).toMillis() + 2000));
+    }
+
+    private static Meta createMetadata() {
+        Meta employee = createMeta("employee", "Cell");
+        employee.getComponents().put("employee", createComponent(null, null));
+        employee.getComponents().put("salary", createComponent(null, null));
+        Meta stock = createMeta("stock", "Composite");
+        stock.getComponents().put("stock", createComponent(null, null));
+        Meta hr = createMeta("hr", "Cell");
+        hr.getComponents().put("hr", createComponent(employee, stock));
+        return hr;
+    }
+
+    private static Meta createMeta(String name, String kind) {
+        Meta meta = new Meta();
+        meta.setOrg("myorg");
+        meta.setName(name);
+        meta.setVer("1.0.0");
+        meta.setKind(kind);
+        return meta;
+    }
+
+    private static ComponentMeta createComponent(Meta cell, Meta composite) {
+        DependencyMeta dependencies = new DependencyMeta();
+        dependencies.setComposites(new LinkedHashMap<>());
+        if (cell != null) {
+            dependencies.getCells().put("employeeCellDep", cell);
+        }
+        if (composite != null) {
+            dependencies.getComposites().put("stockCompositeDep", composite);
+        }
+        ComponentMeta component = new ComponentMeta();
+        component.setDependencies(dependencies);
+        return component;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.cellery.util;
+
+import io.cellery.models.Composite;
+import io.cellery.models.InstanceCondition;
+import io.cellery.models.InstanceStatus;
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.client.Watcher;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Tests for the shared watch on Cell and Composite instances.
+ */
+public class InstanceWatcherTest {
+    private static final String READY = "Ready";
+    private Map<String, Composite> instances;
+    private InstanceWatcher<Composite> watcher;
+
+    @BeforeMethod
+    public void createWatcher() {
+        instances = new HashMap<>();
+        watcher = new InstanceWatcher<>(instanceWatcher -> () -> { }, instances::get);
+    }
+
+    @Test
+    public void shareFutureOfAwaitedCondition() {
+        CompletableFuture<Void> first = watcher.await(READY, "hr");
+        CompletableFuture<Void> second = watcher.await(READY, "hr");
+        Assert.assertSame(second, first);
+        Assert.assertNotSame(watcher.await(READY, "employee"), first);
+
+        watcher.eventReceived(Watcher.Action.MODIFIED, createInstance("hr", "True"));
+        Assert.assertTrue(first.isDone());
+        Assert.assertFalse(first.isCompletedExceptionally());
+    }
+
+    @Test
+    public void completeConditionMetBeforeWatch() {
+        instances.put("hr", createInstance("hr", "True"));
+        Assert.assertTrue(watcher.await(READY, "hr").isDone());
+    }
+
+    @Test
+    public void keepFutureWhileAwaitedByOtherCallers() {
+        CompletableFuture<Void> first = watcher.await(READY, "hr");
+        watcher.await(READY, "hr");
+        watcher.abandon(READY, "hr", first);
+        Assert.assertSame(watcher.await(READY, "hr"), first);
+        Assert.assertFalse(first.isDone());
+    }
+
+    @Test
+    public void doNotJoinAbandonedFuture() {
+        CompletableFuture<Void> abandoned = watcher.await(READY, "hr");
+        watcher.abandon(READY, "hr", abandoned);
+        CompletableFuture<Void> future = watcher.await(READY, "hr");
+        Assert.assertNotSame(future, abandoned);
+
+        // Abandoning a future which is no longer tracked does not affect the current one
+        watcher.abandon(READY, "hr", abandoned);
+        watcher.eventReceived(Watcher.Action.MODIFIED, createInstance("hr", "True"));
+        Assert.assertTrue(future.isDone());
+        Assert.assertFalse(abandoned.isDone());
+    }
+
+    @Test
+    public void failConditionsOfDeletedInstance() {
+        CompletableFuture<Void> future = watcher.await(READY, "hr");
+        watcher.eventReceived(Watcher.Action.MODIFIED, createInstance("hr", "False"));
+        Assert.assertFalse(future.isDone());
+        watcher.eventReceived(Watcher.Action.DELETED, createInstance("hr", "False"));
+        Assert.assertTrue(future.isCompletedExceptionally());
+        Assert.assertNotSame(watcher.await(READY, "hr"), future);
+    }
+
+    private static Composite createInstance(String name, String ready) {
+        InstanceCondition condition = new InstanceCondition();
+        condition.setType(READY);
+        condition.setStatus(ready);
+        InstanceStatus status = new InstanceStatus();
+        status.getConditions().add(condition);
+        Composite instance = new Composite(new ObjectMetaBuilder().withName(name).build(), null);
+        instance.setStatus(status);
+        return instance;
+    }
+}
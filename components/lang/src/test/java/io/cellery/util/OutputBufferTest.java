@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.cellery.util;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+/**
+ * Tests for the buffer which retains the output of processes.
+ */
+public class OutputBufferTest {
+
+    @Test
+    public void growAsOutputIsAppended() {
+        OutputBuffer buffer = new OutputBuffer(1000);
+        Assert.assertEquals(buffer.capacity(), 0);
+        buffer.append("abc");
+        Assert.assertEquals(buffer.capacity(), 256);
+        buffer.append(repeat('d', 300));
+        Assert.assertEquals(buffer.capacity(), 512);
+        buffer.append(repeat('e', 400));
+        Assert.assertEquals(buffer.capacity(), 1000);
+        Assert.assertEquals(buffer.toString(), "abc" + repeat('d', 300) + repeat('e', 400));
+        Assert.assertFalse(buffer.isTruncated());
+    }
+
+    @Test
+    public void retainTailOnceFull() {
+        OutputBuffer buffer = new OutputBuffer(10);
+        buffer.append("0123456789");
+        Assert.assertEquals(buffer.toString(), "0123456789");
+        Assert.assertFalse(buffer.isTruncated());
+        buffer.append("ab");
+        Assert.assertEquals(buffer.toString(), "23456789ab");
+        Assert.assertTrue(buffer.isTruncated());
+        buffer.append("cdefghijk");
+        Assert.assertEquals(buffer.toString(), "bcdefghijk");
+        Assert.assertEquals(buffer.capacity(), 10);
+    }
+
+    @Test
+    public void retainTailOfLongValue() {
+        OutputBuffer buffer = new OutputBuffer(4);
+        buffer.append("abcdefg");
+        Assert.assertEquals(buffer.toString(), "defg");
+        Assert.assertTrue(buffer.isTruncated());
+    }
+
+    @Test
+    public void retainTailOfRandomOutput() {
+        Random random = new Random(42);
+        OutputBuffer buffer = new OutputBuffer(1000);
+        StringBuilder output = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            String value = repeat((char) ('a' + random.nextInt(26)), random.nextInt(60));
+            buffer.append(value);
+            output.append(value);
+            Assert.assertEquals(buffer.toString(), output.substring(Math.max(0, output.length() - 1000)));
+            Assert.assertEquals(buffer.isTruncated(), output.length() > 1000);
+        }
+    }
+
+    private static String repeat(char character, int count) {
+        StringBuilder value = new StringBuilder(count);
+        for (int i = 0; i < count; i++) {
+            value.append(character);
+        }
+        return value.toString();
+    }
+}